@@ -0,0 +1,127 @@
+package com.think.health_first_server.bench;
+
+import com.think.health_first_server.HealthFirstServerApplication;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.enums.VerificationStatus;
+import com.think.health_first_server.repo.AppointmentRepository;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import com.think.health_first_server.service.AppointmentScheduleIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the in-memory schedule index with the countConflictingAppointments query
+ * over 1M appointments (1,000 providers x 1,000 back-to-back 30 minute slots).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class ConflictCheckBenchmark {
+
+    private static final int PROVIDERS = 1_000;
+    private static final int APPOINTMENTS_PER_PROVIDER = 1_000;
+    private static final int SLOT_MINUTES = 30;
+
+    private ConfigurableApplicationContext context;
+    private AppointmentRepository appointmentRepository;
+    private AppointmentScheduleIndex scheduleIndex;
+    private UUID[] providerIds;
+    private LocalDateTime firstSlot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(HealthFirstServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:conflict-bench;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        appointmentRepository = context.getBean(AppointmentRepository.class);
+        scheduleIndex = context.getBean(AppointmentScheduleIndex.class);
+        firstSlot = LocalDate.now().plusDays(1).atTime(8, 0);
+
+        Patient patient = new Patient();
+        patient.setFirstName("Bench");
+        patient.setLastName("Patient");
+        patient.setEmail("bench.patient@example.com");
+        patient.setPhoneNumber("+10000000000");
+        patient = context.getBean(PatientRepository.class).save(patient);
+
+        List<Provider> providers = new ArrayList<>();
+        for (int i = 0; i < PROVIDERS; i++) {
+            Provider provider = new Provider();
+            provider.setFirstName("Bench");
+            provider.setLastName("Provider" + i);
+            provider.setEmail("provider" + i + "@example.com");
+            provider.setPhoneNumber("+1" + (2000000000L + i));
+            provider.setPasswordHash("x");
+            provider.setSpecialization("Cardiology");
+            provider.setLicenseNumber("LIC" + i);
+            provider.setVerificationStatus(VerificationStatus.VERIFIED);
+            providers.add(provider);
+        }
+        providers = context.getBean(ProviderRepository.class).saveAll(providers);
+        providerIds = providers.stream().map(Provider::getId).toArray(UUID[]::new);
+
+        seedAppointments(context.getBean(JdbcTemplate.class), patient.getId());
+        scheduleIndex.rebuild();
+    }
+
+    private void seedAppointments(JdbcTemplate jdbcTemplate, UUID patientId) {
+        String sql = "INSERT INTO appointments (id, patient_id, provider_id, appointment_mode, appointment_type, " +
+                "appointment_date_time, duration_minutes, status, created_at, updated_at) " +
+                "VALUES (?, ?, ?, 'IN_PERSON', 'consultation', ?, ?, 'SCHEDULED', ?, ?)";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (UUID providerId : providerIds) {
+            List<Object[]> rows = new ArrayList<>(APPOINTMENTS_PER_PROVIDER);
+            for (int slot = 0; slot < APPOINTMENTS_PER_PROVIDER; slot++) {
+                rows.add(new Object[]{UUID.randomUUID(), patientId, providerId,
+                        Timestamp.valueOf(firstSlot.plusMinutes((long) slot * SLOT_MINUTES)),
+                        SLOT_MINUTES, now, now});
+            }
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private UUID randomProvider() {
+        return providerIds[ThreadLocalRandom.current().nextInt(providerIds.length)];
+    }
+
+    private LocalDateTime randomSlot() {
+        int slot = ThreadLocalRandom.current().nextInt(APPOINTMENTS_PER_PROVIDER + 100);
+        return firstSlot.plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    @Benchmark
+    public boolean scheduleIndex() {
+        return scheduleIndex.hasConflict(randomProvider(), randomSlot(), SLOT_MINUTES);
+    }
+
+    @Benchmark
+    public long countConflictingAppointmentsQuery() {
+        return appointmentRepository.countConflictingAppointments(randomProvider(), randomSlot());
+    }
+}
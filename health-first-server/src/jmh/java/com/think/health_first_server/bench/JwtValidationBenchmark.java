@@ -0,0 +1,67 @@
+package com.think.health_first_server.bench;
+
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.enums.VerificationStatus;
+import com.think.health_first_server.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue cost at login, and bearer-token validation cost: a parser built per call (the previous behaviour),
+ * the shared parser, and the verified-claims cache hit taken by repeat requests with the same token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "health-first-benchmark-signing-secret-0123456789";
+
+    private JwtService jwtService;
+    private Provider provider;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 3_600_000, 1_800_000, 10_000);
+        provider = new Provider();
+        provider.setId(UUID.randomUUID());
+        provider.setEmail("bench@example.com");
+        provider.setSpecialization("Cardiology");
+        provider.setVerificationStatus(VerificationStatus.VERIFIED);
+        token = jwtService.generateToken(provider);
+        jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(provider);
+    }
+
+    @Benchmark
+    public Claims parserPerCall() {
+        return Jwts.parserBuilder()
+                .setSigningKey(SECRET.getBytes(StandardCharsets.UTF_8))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return jwtService.extractClaims(token);
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken cachedValidation() {
+        return jwtService.validateToken(token);
+    }
+}
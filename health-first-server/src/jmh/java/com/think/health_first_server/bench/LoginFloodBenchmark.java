@@ -0,0 +1,124 @@
+package com.think.health_first_server.bench;
+
+import com.think.health_first_server.HealthFirstServerApplication;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dto.AppointmentRequest;
+import com.think.health_first_server.dto.LoginRequest;
+import com.think.health_first_server.enums.VerificationStatus;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import com.think.health_first_server.service.AppointmentService;
+import com.think.health_first_server.service.PasswordHashingBusyException;
+import com.think.health_first_server.service.PasswordHashingService;
+import com.think.health_first_server.service.PatientService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking latency on its own versus while 16 threads hammer patient login. With hashing confined to the
+ * bounded pool the booking percentiles of {@code loginFlood:book} should stay close to {@code bookAlone};
+ * logins beyond the queue limit are rejected (429) instead of piling onto the CPU.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoginFloodBenchmark {
+
+    private static final String PASSWORD = "Bench-Password-1";
+
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+    private AppointmentService appointmentService;
+    private UUID patientId;
+    private UUID providerId;
+    private LocalDateTime firstSlot;
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(HealthFirstServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:login-flood-bench;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        patientService = context.getBean(PatientService.class);
+        appointmentService = context.getBean(AppointmentService.class);
+        firstSlot = LocalDate.now().plusDays(1).atTime(0, 0);
+
+        Patient patient = new Patient();
+        patient.setFirstName("Bench");
+        patient.setLastName("Patient");
+        patient.setEmail("flood.patient@example.com");
+        patient.setPhoneNumber("+10000000001");
+        patient.setPasswordHash(context.getBean(PasswordHashingService.class).encode(PASSWORD));
+        patientId = context.getBean(PatientRepository.class).save(patient).getId();
+
+        Provider provider = new Provider();
+        provider.setFirstName("Bench");
+        provider.setLastName("Provider");
+        provider.setEmail("flood.provider@example.com");
+        provider.setPhoneNumber("+10000000002");
+        provider.setPasswordHash("x");
+        provider.setSpecialization("Cardiology");
+        provider.setLicenseNumber("FLOOD-1");
+        provider.setVerificationStatus(VerificationStatus.VERIFIED);
+        providerId = context.getBean(ProviderRepository.class).save(provider).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Appointment bookNext() {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setPatientId(patientId);
+        request.setProviderId(providerId);
+        request.setAppointmentMode(Appointment.AppointmentMode.IN_PERSON);
+        request.setAppointmentType("consultation");
+        // Back-to-back 30 minute slots so no booking ever conflicts
+        request.setAppointmentDateTime(firstSlot.plusMinutes(nextSlot.getAndIncrement() * 30));
+        return appointmentService.createAppointment(request);
+    }
+
+    @Benchmark
+    public Appointment bookAlone() {
+        return bookNext();
+    }
+
+    @Benchmark
+    @Group("loginFlood")
+    @GroupThreads(1)
+    public Appointment book() {
+        return bookNext();
+    }
+
+    @Benchmark
+    @Group("loginFlood")
+    @GroupThreads(16)
+    public Object login() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("flood.patient@example.com");
+        request.setPassword(PASSWORD);
+        try {
+            return patientService.login(request);
+        } catch (PasswordHashingBusyException e) {
+            return e;
+        }
+    }
+}
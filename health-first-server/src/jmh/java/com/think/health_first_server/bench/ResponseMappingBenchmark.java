@@ -0,0 +1,112 @@
+package com.think.health_first_server.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dto.AppointmentResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response-side cost of the appointment endpoints: entity to DTO mapping and Jackson serialization of the
+ * {@code Map.of} envelopes the controllers return, for a single booking and for a list page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"100"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private Appointment appointment;
+    private List<Appointment> appointments;
+    private List<AppointmentResponse> responses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same defaults Spring Boot applies to the MVC ObjectMapper (JavaTimeModule, ISO dates)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        appointments = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            appointments.add(appointment(i));
+        }
+        appointment = appointments.get(0);
+        responses = appointments.stream().map(AppointmentResponse::fromAppointment).toList();
+    }
+
+    private static Appointment appointment(int i) {
+        Patient patient = new Patient();
+        patient.setId(UUID.randomUUID());
+        patient.setFirstName("Jane");
+        patient.setLastName("Patient" + i);
+        Provider provider = new Provider();
+        provider.setId(UUID.randomUUID());
+        provider.setFirstName("John");
+        provider.setLastName("Provider" + i);
+
+        Appointment appointment = new Appointment();
+        appointment.setId(UUID.randomUUID());
+        appointment.setPatient(patient);
+        appointment.setProvider(provider);
+        appointment.setAppointmentMode(Appointment.AppointmentMode.IN_PERSON);
+        appointment.setAppointmentType("consultation");
+        appointment.setEstimatedAmount(150.0);
+        appointment.setAppointmentDateTime(LocalDateTime.now().plusDays(1).plusMinutes(30L * i));
+        appointment.setReasonForVisit("Annual check-up");
+        appointment.setCreatedAt(LocalDateTime.now());
+        appointment.setUpdatedAt(LocalDateTime.now());
+        return appointment;
+    }
+
+    @Benchmark
+    public AppointmentResponse fromAppointment() {
+        return AppointmentResponse.fromAppointment(appointment);
+    }
+
+    @Benchmark
+    public List<AppointmentResponse> fromAppointmentList() {
+        return appointments.stream().map(AppointmentResponse::fromAppointment).toList();
+    }
+
+    @Benchmark
+    public byte[] bookingEnvelope() throws JsonProcessingException {
+        // Mirrors AppointmentController.bookAppointment
+        return objectMapper.writeValueAsBytes(Map.of(
+                "success", true,
+                "message", "Appointment booked successfully",
+                "data", Map.of(
+                        "appointment_id", appointment.getId(),
+                        "patient_name", appointment.getPatient().getFirstName() + " " + appointment.getPatient().getLastName(),
+                        "provider_name", appointment.getProvider().getFirstName() + " " + appointment.getProvider().getLastName(),
+                        "appointment_date_time", appointment.getAppointmentDateTime(),
+                        "appointment_mode", appointment.getAppointmentMode(),
+                        "appointment_type", appointment.getAppointmentType(),
+                        "status", appointment.getStatus()
+                )
+        ));
+    }
+
+    @Benchmark
+    public byte[] listEnvelope() throws JsonProcessingException {
+        // Mirrors AppointmentController.getAllAppointments
+        return objectMapper.writeValueAsBytes(Map.of(
+                "success", true,
+                "message", "Appointments retrieved successfully",
+                "data", responses
+        ));
+    }
+}
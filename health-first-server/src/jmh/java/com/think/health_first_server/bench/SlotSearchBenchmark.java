@@ -0,0 +1,147 @@
+package com.think.health_first_server.bench;
+
+import com.think.health_first_server.HealthFirstServerApplication;
+import com.think.health_first_server.dao.ClinicAddress;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dao.ProviderAvailability;
+import com.think.health_first_server.dto.OpenSlot;
+import com.think.health_first_server.dto.SlotSearchRequest;
+import com.think.health_first_server.enums.VerificationStatus;
+import com.think.health_first_server.repo.ProviderAvailabilityRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import com.think.health_first_server.service.SlotSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open-slot search latency over 10,000 providers, each with a daily 08:00-18:00 schedule of 30 minute slots across
+ * the whole search horizon (about 5.6M indexed slots). Run through {@link #main} to fail when a p99 exceeds 20 ms:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.main=com.think.health_first_server.bench.SlotSearchBenchmark
+ * -Djmh.include=SlotSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class SlotSearchBenchmark {
+
+    private static final int PROVIDERS = 10_000;
+    private static final double P99_BUDGET_MICROS = 20_000;
+    private static final List<String> SPECIALIZATIONS = List.of("Cardiology", "Dermatology", "Pediatrics", "Neurology", "Orthopedics");
+    private static final List<String> CITIES = List.of("Springfield", "Riverside", "Franklin", "Greenville", "Madison",
+            "Clinton", "Georgetown", "Salem", "Fairview", "Bristol");
+
+    private ConfigurableApplicationContext context;
+    private SlotSearchIndex slotSearchIndex;
+
+    public static void main(String[] args) throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder().parent(new CommandLineOptions(args)).build()).run();
+        if (results.isEmpty()) {
+            throw new IllegalStateException("No benchmark produced a result");
+        }
+        List<String> breaches = new ArrayList<>();
+        for (RunResult result : results) {
+            double p99 = result.getPrimaryResult().getStatistics().getPercentile(99);
+            if (p99 > P99_BUDGET_MICROS) {
+                breaches.add(String.format("%s p99 %.0f us > %.0f us", result.getParams().getBenchmark(), p99,
+                        P99_BUDGET_MICROS));
+            }
+        }
+        if (!breaches.isEmpty()) {
+            throw new IllegalStateException("Slot search budget exceeded:\n  " + String.join("\n  ", breaches));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The security chain needs the MVC context, so this one serves on a random port it never uses
+        context = new SpringApplicationBuilder(HealthFirstServerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:slot-search-bench;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        slotSearchIndex = context.getBean(SlotSearchIndex.class);
+
+        List<Provider> providers = new ArrayList<>();
+        for (int i = 0; i < PROVIDERS; i++) {
+            Provider provider = new Provider();
+            provider.setFirstName("Bench");
+            provider.setLastName("Provider" + i);
+            provider.setEmail("provider" + i + "@example.com");
+            provider.setPhoneNumber("+1" + (2000000000L + i));
+            provider.setPasswordHash("x");
+            provider.setSpecialization(SPECIALIZATIONS.get(i % SPECIALIZATIONS.size()));
+            provider.setLicenseNumber("LIC" + i);
+            provider.setVerificationStatus(VerificationStatus.VERIFIED);
+            ClinicAddress address = new ClinicAddress();
+            address.setCity(CITIES.get(i / SPECIALIZATIONS.size() % CITIES.size()));
+            address.setState("IL");
+            address.setZip("627" + String.format("%02d", i % 100));
+            provider.setClinicAddress(address);
+            providers.add(provider);
+        }
+        providers = context.getBean(ProviderRepository.class).saveAll(providers);
+
+        List<ProviderAvailability> rules = new ArrayList<>();
+        for (Provider provider : providers) {
+            ProviderAvailability rule = new ProviderAvailability();
+            rule.setProvider(provider);
+            rule.setDate(LocalDate.now());
+            rule.setStartTime(LocalTime.of(8, 0));
+            rule.setEndTime(LocalTime.of(18, 0));
+            rule.setRecurring(true);
+            rule.setRecurrencePattern("daily");
+            rule.setLocationType(rules.size() % 2 == 0 ? "clinic" : "telemedicine");
+            rules.add(rule);
+        }
+        context.getBean(ProviderAvailabilityRepository.class).saveAll(rules);
+        slotSearchIndex.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<OpenSlot> anyProvider() {
+        return slotSearchIndex.search(new SlotSearchRequest());
+    }
+
+    @Benchmark
+    public List<OpenSlot> bySpecialization() {
+        SlotSearchRequest request = new SlotSearchRequest();
+        request.setSpecialization(SPECIALIZATIONS.get(ThreadLocalRandom.current().nextInt(SPECIALIZATIONS.size())));
+        request.setLimit(20);
+        return slotSearchIndex.search(request);
+    }
+
+    @Benchmark
+    public List<OpenSlot> byCityAndLocationNextWeek() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SlotSearchRequest request = new SlotSearchRequest();
+        request.setCity(CITIES.get(random.nextInt(CITIES.size())));
+        request.setLocationType("telemedicine");
+        request.setFrom(LocalDate.now().plusDays(7).atStartOfDay());
+        request.setTo(LocalDate.now().plusDays(14).atStartOfDay());
+        request.setLimit(SlotSearchIndex.MAX_RESULTS);
+        return slotSearchIndex.search(request);
+    }
+}
@@ -0,0 +1,306 @@
+package com.think.health_first_server.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.think.health_first_server.HealthFirstServerApplication;
+import com.think.health_first_server.loadtest.LoadTestSeeder.SeedData;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Starts the server in-process on a random port (H2 by default, or any database given through the usual
+ * {@code spring.datasource.*} system properties), seeds it, then drives a mix of login bursts, availability reads,
+ * and booking storms and appointment listings on a few popular providers. Reports throughput, latency percentiles
+ * and outcome rates per scenario and fails when a latency or error budget is exceeded. Then compares booking
+ * throughput on one provider with the same load spread over many (see {@link #compareProviderSpread}).
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:java}; all settings are {@code -Dloadtest.*} system properties,
+ * budgets as {@code -Dloadtest.budget.<scenario>.p99-ms=...} (also p50, p95, p999) and
+ * {@code -Dloadtest.budget.<scenario>.max-error-rate=...}, and {@code -Dloadtest.budget.provider-spread.min-ratio=...}
+ * for the comparison.
+ */
+public final class LoadTestRunner {
+
+    private static final double[] PERCENTILES = {50, 95, 99, 99.9};
+    private static final String[] PERCENTILE_KEYS = {"p50", "p95", "p99", "p999"};
+    private static final Map<String, Double> DEFAULT_P99_BUDGET_MS = Map.of(
+            "provider-login", 2000.0,
+            "patient-login", 2000.0,
+            "availability-read", 250.0,
+            "appointment-list", 250.0,
+            "booking-storm", 500.0);
+    private static final double DEFAULT_MAX_ERROR_RATE = 0.01;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        List<String> breaches = new LoadTestRunner().run();
+        if (!breaches.isEmpty()) {
+            // exec:java turns this into a failed build
+            throw new IllegalStateException("Load test budgets exceeded:\n  " + String.join("\n  ", breaches));
+        }
+    }
+
+    List<String> run() throws Exception {
+        int providers = intProperty("loadtest.providers", 50);
+        int patients = intProperty("loadtest.patients", 500);
+        int popularProviders = Math.min(providers, intProperty("loadtest.popular-providers", 3));
+        int bookingDays = intProperty("loadtest.booking-days", 14);
+        Duration warmup = Duration.ofSeconds(intProperty("loadtest.warmup-seconds", 10));
+        Duration duration = Duration.ofSeconds(intProperty("loadtest.duration-seconds", 60));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HealthFirstServerApplication.class)
+                .run(serverArguments());
+        try {
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            SeedData seed = LoadTestSeeder.seed(context, providers, patients, bookingDays + 7);
+            List<Scenario> scenarios = scenarios(seed, popularProviders, bookingDays);
+
+            System.out.printf("Load test against %s: %d providers (%d popular), %d patients, %ds warm-up, %ds measured%n",
+                    baseUrl, providers, popularProviders, patients, warmup.toSeconds(), duration.toSeconds());
+            drive(scenarios, warmup, duration);
+
+            Map<Scenario, ScenarioStats.Snapshot> results = new LinkedHashMap<>();
+            for (Scenario scenario : scenarios) {
+                results.put(scenario, scenario.stats.snapshot());
+            }
+            report(results, duration, System.out);
+            writeHistograms(results);
+            List<String> breaches = checkBudgets(results);
+            breaches.addAll(compareProviderSpread(seed));
+            return breaches;
+        } finally {
+            context.close();
+        }
+    }
+
+    // Arguments rather than default properties, which application.yml would override
+    private static String[] serverArguments() {
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0", "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                // Every simulated client comes from this one address; load shedding stays on
+                "--admission.rate-limits.enabled=false"));
+        String url = System.getProperty("spring.datasource.url", "");
+        if (!url.isEmpty() && !url.startsWith("jdbc:h2:")) {
+            // application.yml pins the H2 driver and dialect; blank ones are derived from the URL and the connection
+            for (String pinned : List.of("spring.datasource.driver-class-name", "spring.jpa.properties.hibernate.dialect")) {
+                if (System.getProperty(pinned) == null) {
+                    arguments.add("--" + pinned + "=");
+                }
+            }
+        }
+        return arguments.toArray(String[]::new);
+    }
+
+    private List<Scenario> scenarios(SeedData seed, int popularProviders, int bookingDays) {
+        List<UUID> popular = seed.providerIds().subList(0, popularProviders);
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        return List.of(
+                new Scenario("provider-login", intProperty("loadtest.workers.provider-login", 4),
+                        random -> login("/api/v1/provider/login", pick(seed.providerEmails(), random))),
+                new Scenario("patient-login", intProperty("loadtest.workers.patient-login", 8),
+                        random -> login("/api/v1/patient/login", pick(seed.patientEmails(), random))),
+                new Scenario("availability-read", intProperty("loadtest.workers.availability-read", 8),
+                        random -> random.nextBoolean()
+                                ? get("/api/v1/provider/availability/provider/" + pick(seed.providerIds(), random)
+                                + "/slots?from=" + firstDay + "&to=" + firstDay.plusDays(6))
+                                : get("/api/v1/provider/availability/search?specialization="
+                                + pick(LoadTestSeeder.SPECIALIZATIONS, random) + "&limit=20")),
+                new Scenario("appointment-list", intProperty("loadtest.workers.appointment-list", 4),
+                        random -> get("/api/v1/appointments/provider/" + pick(popular, random))),
+                new Scenario("booking-storm", intProperty("loadtest.workers.booking-storm", 16),
+                        random -> book(pick(seed.patientIds(), random), pick(popular, random),
+                                // 20 half-hour slots a day between 08:00 and 18:00
+                                firstDay.plusDays(random.nextInt(bookingDays))
+                                        .atTime(LocalTime.of(8, 0)).plusMinutes(30L * random.nextInt(20))))
+        );
+    }
+
+    /**
+     * Books distinct slots with the same number of workers, first all on one provider and then round-robin over
+     * many. Bookings for one provider are serialized by its lock, so the throughput ratio is what that lock costs.
+     */
+    private List<String> compareProviderSpread(SeedData seed) throws InterruptedException, IOException {
+        int workers = intProperty("loadtest.workers.provider-spread", 16);
+        int spread = Math.min(seed.providerIds().size(), intProperty("loadtest.spread-providers", 50));
+        Duration warmup = Duration.ofSeconds(intProperty("loadtest.spread-warmup-seconds", 5));
+        Duration duration = Duration.ofSeconds(intProperty("loadtest.spread-seconds", 20));
+        // Far enough out not to collide with the storm or each other, and outside every seeded schedule
+        Scenario single = distinctBookings("booking-1-provider", workers, seed,
+                seed.providerIds().subList(0, 1), LocalDate.now().plusYears(1));
+        Scenario spreadOut = distinctBookings("booking-" + spread + "-providers", workers, seed,
+                seed.providerIds().subList(0, spread), LocalDate.now().plusYears(3));
+
+        Map<Scenario, ScenarioStats.Snapshot> results = new LinkedHashMap<>();
+        for (Scenario scenario : List.of(single, spreadOut)) {
+            drive(List.of(scenario), warmup, duration);
+            results.put(scenario, scenario.stats.snapshot());
+        }
+        report(results, duration, System.out);
+        writeHistograms(results);
+
+        double ratio = (double) results.get(spreadOut).ok() / Math.max(1, results.get(single).ok());
+        System.out.printf("%nBookings/s over %d providers: %.2fx one provider with %d workers%n", spread, ratio, workers);
+        String minRatio = System.getProperty("loadtest.budget.provider-spread.min-ratio");
+        if (minRatio != null && ratio < Double.parseDouble(minRatio)) {
+            return List.of(String.format("provider-spread ratio %.2f < %s", ratio, minRatio));
+        }
+        return List.of();
+    }
+
+    private Scenario distinctBookings(String name, int workers, SeedData seed, List<UUID> providers, LocalDate day) {
+        AtomicLong next = new AtomicLong();
+        LocalDateTime first = day.atTime(LocalTime.of(8, 0));
+        // Each request takes the next free half hour of the next provider, so none of them conflict
+        return new Scenario(name, workers, random -> {
+            long n = next.getAndIncrement();
+            return book(pick(seed.patientIds(), random), providers.get((int) (n % providers.size())),
+                    first.plusMinutes(30 * (n / providers.size())));
+        });
+    }
+
+    private void drive(List<Scenario> scenarios, Duration warmup, Duration duration) throws InterruptedException {
+        int threads = scenarios.stream().mapToInt(scenario -> scenario.workers).sum();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long end = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+        for (Scenario scenario : scenarios) {
+            for (int i = 0; i < scenario.workers; i++) {
+                workers.execute(() -> loop(scenario, end));
+            }
+        }
+        Thread.sleep(warmup.toMillis());
+        scenarios.forEach(scenario -> scenario.stats.reset());
+        workers.shutdown();
+        if (!workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    // Closed loop: each worker sends its next request as soon as the previous one completes
+    private void loop(Scenario scenario, long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < end) {
+            HttpRequest request = scenario.requests.apply(random);
+            long started = System.nanoTime();
+            ScenarioStats.Outcome outcome;
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                outcome = Scenario.classify(status);
+            } catch (IOException e) {
+                outcome = ScenarioStats.Outcome.ERROR;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            scenario.stats.record(System.nanoTime() - started, outcome);
+        }
+    }
+
+    private HttpRequest login(String path, String email) {
+        return post(path, Map.of("email", email, "password", LoadTestSeeder.PASSWORD));
+    }
+
+    private HttpRequest book(UUID patientId, UUID providerId, LocalDateTime time) {
+        return post("/api/v1/appointments/book", Map.of(
+                "patientId", patientId,
+                "providerId", providerId,
+                "appointmentMode", "IN_PERSON",
+                "appointmentType", "consultation",
+                "appointmentDateTime", time.toString()));
+    }
+
+    private HttpRequest post(String path, Map<String, ?> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private static void report(Map<Scenario, ScenarioStats.Snapshot> results, Duration duration, PrintStream out) {
+        out.printf("%n%-18s %9s %9s %9s %9s %9s %9s %9s %9s %9s %9s%n", "scenario", "requests", "req/s",
+                "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms", "conflict", "rejected", "error");
+        results.forEach((scenario, result) -> out.printf("%-18s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8.2f%% %8.2f%% %8.2f%%%n",
+                scenario.name, result.total(), (double) result.total() / duration.toSeconds(),
+                result.percentileMillis(50), result.percentileMillis(95), result.percentileMillis(99),
+                result.percentileMillis(99.9), result.histogram().getMaxValue() / 1000.0,
+                100 * result.rate(result.conflicts()), 100 * result.rate(result.rejected()),
+                100 * result.rate(result.errors())));
+    }
+
+    private static void writeHistograms(Map<Scenario, ScenarioStats.Snapshot> results) throws IOException {
+        Path dir = Path.of(System.getProperty("loadtest.output-dir", "target/loadtest"));
+        Files.createDirectories(dir);
+        for (Map.Entry<Scenario, ScenarioStats.Snapshot> entry : results.entrySet()) {
+            // Percentile distribution in milliseconds, loadable by the HdrHistogram plotter
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(entry.getKey().name + ".hgrm")))) {
+                entry.getValue().histogram().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static List<String> checkBudgets(Map<Scenario, ScenarioStats.Snapshot> results) {
+        List<String> breaches = new ArrayList<>();
+        results.forEach((scenario, result) -> {
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                String key = "loadtest.budget." + scenario.name + "." + PERCENTILE_KEYS[i] + "-ms";
+                Double fallback = PERCENTILE_KEYS[i].equals("p99") ? DEFAULT_P99_BUDGET_MS.get(scenario.name) : null;
+                String configured = System.getProperty(key);
+                Double budget = configured != null ? Double.valueOf(configured) : fallback;
+                double actual = result.percentileMillis(PERCENTILES[i]);
+                if (budget != null && actual > budget) {
+                    breaches.add(String.format("%s %s %.2f ms > %.2f ms", scenario.name, PERCENTILE_KEYS[i], actual, budget));
+                }
+            }
+            double maxErrorRate = Double.parseDouble(System.getProperty(
+                    "loadtest.budget." + scenario.name + ".max-error-rate", Double.toString(DEFAULT_MAX_ERROR_RATE)));
+            if (result.rate(result.errors()) > maxErrorRate) {
+                breaches.add(String.format("%s error rate %.2f%% > %.2f%%", scenario.name,
+                        100 * result.rate(result.errors()), 100 * maxErrorRate));
+            }
+        });
+        return breaches;
+    }
+
+    private static <T> T pick(List<T> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(System.getProperty(name, Integer.toString(defaultValue)));
+    }
+}
@@ -0,0 +1,94 @@
+package com.think.health_first_server.loadtest;
+
+import com.think.health_first_server.dao.ClinicAddress;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dto.ProviderAvailabilityRequest;
+import com.think.health_first_server.enums.VerificationStatus;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import com.think.health_first_server.service.PasswordHashingService;
+import com.think.health_first_server.service.ProviderAvailabilityService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Creates verified providers with a daily recurring schedule, and patients, directly through the repositories so
+ * seeding does not count against the measured traffic. Every account shares one password hash to keep it fast.
+ */
+final class LoadTestSeeder {
+
+    static final String PASSWORD = "LoadTest-Password-1";
+    static final List<String> SPECIALIZATIONS = List.of("Cardiology", "Dermatology", "Pediatrics", "Neurology", "Orthopedics");
+
+    record SeedData(List<UUID> providerIds, List<String> providerEmails, List<UUID> patientIds, List<String> patientEmails) {
+    }
+
+    private LoadTestSeeder() {
+    }
+
+    static SeedData seed(ConfigurableApplicationContext context, int providerCount, int patientCount, int scheduleDays) {
+        String passwordHash = context.getBean(PasswordHashingService.class).encode(PASSWORD);
+        String run = Long.toString(System.currentTimeMillis(), 36); // lets repeated runs share a Postgres database
+
+        List<Provider> providers = new ArrayList<>();
+        for (int i = 0; i < providerCount; i++) {
+            Provider provider = new Provider();
+            provider.setFirstName("Load");
+            provider.setLastName("Provider" + i);
+            provider.setEmail("provider" + i + "." + run + "@loadtest.example.com");
+            provider.setPhoneNumber("+1" + run + i);
+            provider.setPasswordHash(passwordHash);
+            provider.setSpecialization(SPECIALIZATIONS.get(i % SPECIALIZATIONS.size()));
+            provider.setLicenseNumber("LT-" + run + "-" + i);
+            provider.setYearsOfExperience(5);
+            provider.setVerificationStatus(VerificationStatus.VERIFIED);
+            ClinicAddress address = new ClinicAddress();
+            address.setCity("Springfield");
+            address.setState("IL");
+            address.setZip("62701");
+            provider.setClinicAddress(address);
+            providers.add(provider);
+        }
+        providers = context.getBean(ProviderRepository.class).saveAll(providers);
+
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < patientCount; i++) {
+            Patient patient = new Patient();
+            patient.setFirstName("Load");
+            patient.setLastName("Patient" + i);
+            patient.setEmail("patient" + i + "." + run + "@loadtest.example.com");
+            patient.setPhoneNumber("+2" + run + i);
+            patient.setPasswordHash(passwordHash);
+            patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+            patients.add(patient);
+        }
+        patients = context.getBean(PatientRepository.class).saveAll(patients);
+
+        ProviderAvailabilityService availabilityService = context.getBean(ProviderAvailabilityService.class);
+        for (Provider provider : providers) {
+            ProviderAvailabilityRequest request = new ProviderAvailabilityRequest();
+            request.setProviderId(provider.getId());
+            request.setDate(LocalDate.now());
+            request.setStartTime(LocalTime.of(8, 0));
+            request.setEndTime(LocalTime.of(18, 0));
+            request.setRecurring(true);
+            request.setRecurrencePattern("daily");
+            request.setRecurrenceEndDate(LocalDate.now().plusDays(scheduleDays));
+            request.setSlotDuration(30);
+            request.setAppointmentType("consultation");
+            request.setLocationType("clinic");
+            availabilityService.createAvailability(request);
+        }
+
+        return new SeedData(providers.stream().map(Provider::getId).toList(),
+                providers.stream().map(Provider::getEmail).toList(),
+                patients.stream().map(Patient::getId).toList(),
+                patients.stream().map(Patient::getEmail).toList());
+    }
+}
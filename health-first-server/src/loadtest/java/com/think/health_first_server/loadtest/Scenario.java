@@ -0,0 +1,36 @@
+package com.think.health_first_server.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * One kind of traffic: a request generator run in a closed loop by a fixed number of workers.
+ * 409 counts as a booking conflict and 429 as load shedding; neither is treated as an error.
+ */
+final class Scenario {
+
+    final String name;
+    final int workers;
+    final Function<ThreadLocalRandom, HttpRequest> requests;
+    final ScenarioStats stats = new ScenarioStats();
+
+    Scenario(String name, int workers, Function<ThreadLocalRandom, HttpRequest> requests) {
+        this.name = name;
+        this.workers = workers;
+        this.requests = requests;
+    }
+
+    static ScenarioStats.Outcome classify(int status) {
+        if (status >= 200 && status < 300) {
+            return ScenarioStats.Outcome.OK;
+        }
+        if (status == 409) {
+            return ScenarioStats.Outcome.CONFLICT;
+        }
+        if (status == 429 || status == 503) {
+            return ScenarioStats.Outcome.REJECTED;
+        }
+        return ScenarioStats.Outcome.ERROR;
+    }
+}
@@ -0,0 +1,61 @@
+package com.think.health_first_server.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters for one scenario. Recording is wait-free, so workers never contend on it.
+ */
+final class ScenarioStats {
+
+    enum Outcome {
+        OK, CONFLICT, REJECTED, ERROR
+    }
+
+    // Microseconds, 3 significant digits, up to one minute
+    private final Recorder recorder = new Recorder(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    void record(long latencyNanos, Outcome outcome) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), TimeUnit.MINUTES.toMicros(1)));
+        switch (outcome) {
+            case OK -> ok.increment();
+            case CONFLICT -> conflicts.increment();
+            case REJECTED -> rejected.increment();
+            case ERROR -> errors.increment();
+        }
+    }
+
+    /** Drops everything recorded so far, used to discard the warm-up phase. */
+    void reset() {
+        recorder.getIntervalHistogram();
+        ok.reset();
+        conflicts.reset();
+        rejected.reset();
+        errors.reset();
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(recorder.getIntervalHistogram(), ok.sum(), conflicts.sum(), rejected.sum(), errors.sum());
+    }
+
+    record Snapshot(Histogram histogram, long ok, long conflicts, long rejected, long errors) {
+        long total() {
+            return ok + conflicts + rejected + errors;
+        }
+
+        double rate(long count) {
+            return total() == 0 ? 0 : (double) count / total();
+        }
+
+        double percentileMillis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.think.health_first_server;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class HealthFirstServerApplication {
 
 	public static void main(String[] args) {
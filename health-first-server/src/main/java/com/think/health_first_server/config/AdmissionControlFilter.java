@@ -0,0 +1,95 @@
+package com.think.health_first_server.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the API: sheds whole endpoint classes with 503 while the {@link LoadShedder} reports
+ * overload, then applies the per-address token buckets of the {@link ClientRateLimiter} with 429. Runs before the
+ * JWT filter, so a flood of forged tokens is turned away before any signature is checked; authenticated clients are
+ * additionally limited by their subject in the {@link SubjectRateLimitFilter}. Requests outside {@code /api/}
+ * (actuator, docs, console) are never limited.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    /** Endpoint classes, shed from the given {@link LoadShedder} level upwards; bookings go last. */
+    public enum EndpointClass {
+        LISTING(1), LOGIN(2), OTHER(2), BOOKING(3);
+
+        private final int shedFromLevel;
+
+        EndpointClass(int shedFromLevel) {
+            this.shedFromLevel = shedFromLevel;
+        }
+
+        public int getShedFromLevel() {
+            return shedFromLevel;
+        }
+    }
+
+    private final ClientRateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+
+    public AdmissionControlFilter(ClientRateLimiter rateLimiter, LoadShedder loadShedder) {
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpoint = classify(request);
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        // Shed first, so a client's tokens are not spent on requests that are turned away anyway
+        if (loadShedder.shouldShed(endpoint)) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is busy, please retry shortly");
+            return;
+        }
+        long waitNanos = rateLimiter.tryAcquire(endpoint, "ip:" + request.getRemoteAddr());
+        if (waitNanos > 0) {
+            rejectRateLimited(response, waitNanos);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    static EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith("/api/")) {
+            return null;
+        }
+        String method = request.getMethod();
+        if ("POST".equals(method) && path.endsWith("/login")) {
+            return EndpointClass.LOGIN;
+        }
+        if ("POST".equals(method) && path.startsWith("/api/v1/appointments/book")) {
+            return EndpointClass.BOOKING;
+        }
+        return "GET".equals(method) ? EndpointClass.LISTING : EndpointClass.OTHER;
+    }
+
+    static void rejectRateLimited(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1; // rounded up
+        reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds, "Too many requests, please retry later");
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"success\":false,\"message\":\"" + message + "\"}");
+    }
+}
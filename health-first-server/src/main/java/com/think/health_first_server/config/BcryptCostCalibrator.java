@@ -0,0 +1,35 @@
+package com.think.health_first_server.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the highest BCrypt cost whose hash time on this host stays within a target latency. Each extra cost
+ * step doubles the work, so one measurement at the minimum cost is enough to extrapolate.
+ */
+final class BcryptCostCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(BcryptCostCalibrator.class);
+    private static final String PROBE = "calibration-probe-password";
+
+    private BcryptCostCalibrator() {
+    }
+
+    static int calibrate(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode(PROBE); // warm up
+        long started = System.nanoTime();
+        probe.encode(PROBE);
+        double millisAtMin = Math.max(0.1, (System.nanoTime() - started) / 1_000_000.0);
+
+        int cost = minCost;
+        double millis = millisAtMin;
+        while (cost < maxCost && millis * 2 <= targetMillis) {
+            cost++;
+            millis *= 2;
+        }
+        log.info("BCrypt cost {} selected (~{} ms per hash, target {} ms)", cost, Math.round(millis), targetMillis);
+        return cost;
+    }
+}
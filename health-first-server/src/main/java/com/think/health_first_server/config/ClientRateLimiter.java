@@ -0,0 +1,146 @@
+package com.think.health_first_server.config;
+
+import com.think.health_first_server.config.AdmissionControlFilter.EndpointClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets per client and endpoint class. Each class has its own budget: a burst the bucket holds when full and
+ * a sustained rate per minute at which it refills; a class with a zero burst or rate is not limited. Buckets that
+ * have refilled completely are dropped by the sweep, since a new bucket starts full anyway. The number of tracked
+ * buckets is bounded; while the table is full new clients are admitted untracked and only the {@link LoadShedder}
+ * protects the server from them.
+ */
+@Component
+public class ClientRateLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${admission.rate-limits.enabled:true}")
+    private boolean enabled;
+    @Value("${admission.rate-limits.max-clients:100000}")
+    private int maxClients;
+    @Value("${admission.rate-limits.login.burst:10}")
+    private int loginBurst;
+    @Value("${admission.rate-limits.login.per-minute:20}")
+    private int loginPerMinute;
+    @Value("${admission.rate-limits.booking.burst:20}")
+    private int bookingBurst;
+    @Value("${admission.rate-limits.booking.per-minute:60}")
+    private int bookingPerMinute;
+    @Value("${admission.rate-limits.listing.burst:120}")
+    private int listingBurst;
+    @Value("${admission.rate-limits.listing.per-minute:600}")
+    private int listingPerMinute;
+    @Value("${admission.rate-limits.other.burst:60}")
+    private int otherBurst;
+    @Value("${admission.rate-limits.other.per-minute:300}")
+    private int otherPerMinute;
+
+    private final Map<EndpointClass, Budget> budgets = new EnumMap<>(EndpointClass.class);
+    private final Map<ClientKey, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<EndpointClass, Counter> rejectedCounters = new EnumMap<>(EndpointClass.class);
+    private Counter untrackedCounter;
+
+    @PostConstruct
+    void init() {
+        budgets.put(EndpointClass.LOGIN, Budget.of(loginBurst, loginPerMinute));
+        budgets.put(EndpointClass.BOOKING, Budget.of(bookingBurst, bookingPerMinute));
+        budgets.put(EndpointClass.LISTING, Budget.of(listingBurst, listingPerMinute));
+        budgets.put(EndpointClass.OTHER, Budget.of(otherBurst, otherPerMinute));
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            rejectedCounters.put(endpoint, Counter.builder("admission.rejected")
+                    .description("Requests turned away by admission control")
+                    .tags("reason", "rate_limited", "endpoint", endpoint.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        untrackedCounter = Counter.builder("admission.untracked")
+                .description("Requests admitted without a bucket because the bucket table was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("admission.buckets", buckets, Map::size);
+    }
+
+    /** Takes a token for the client; returns 0 when admitted, otherwise the nanoseconds until a token is available. */
+    public long tryAcquire(EndpointClass endpoint, String client) {
+        Budget budget = budgets.get(endpoint);
+        if (!enabled || budget == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        ClientKey key = new ClientKey(endpoint, client);
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) {
+                untrackedCounter.increment();
+                return 0;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(budget.burst(), now));
+        }
+        long waitNanos = bucket.tryTake(budget, now);
+        if (waitNanos > 0) {
+            rejectedCounters.get(endpoint).increment();
+        }
+        return waitNanos;
+    }
+
+    @Scheduled(fixedDelayString = "${admission.rate-limits.sweep-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().isFull(budgets.get(entry.getKey().endpoint()), now));
+    }
+
+    private record ClientKey(EndpointClass endpoint, String client) {
+    }
+
+    private record Budget(double burst, double tokensPerNano) {
+
+        static Budget of(int burst, int perMinute) {
+            if (burst <= 0 || perMinute <= 0) {
+                return null;
+            }
+            return new Budget(burst, perMinute / (double) TimeUnit.MINUTES.toNanos(1));
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        synchronized long tryTake(Budget budget, long now) {
+            refill(budget, now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / budget.tokensPerNano());
+        }
+
+        synchronized boolean isFull(Budget budget, long now) {
+            refill(budget, now);
+            return tokens >= budget.burst();
+        }
+
+        private void refill(Budget budget, long now) {
+            if (now > refilledAt) { // a caller that read the clock earlier may get the lock later
+                tokens = Math.min(budget.burst(), tokens + (now - refilledAt) * budget.tokensPerNano());
+                refilledAt = now;
+            }
+        }
+    }
+}
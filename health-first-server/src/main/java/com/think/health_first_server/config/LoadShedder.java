@@ -0,0 +1,204 @@
+package com.think.health_first_server.config;
+
+import com.think.health_first_server.config.AdmissionControlFilter.EndpointClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides how much of the API to shed. Every sample it measures how long a task waits in Tomcat's request queue, by
+ * timing a no-op probe submitted to the connector's executor, and the mean time requests waited for a Hikari
+ * connection since the previous sample. While either is over its threshold the shed level rises by one per sample,
+ * dropping listings first, then logins and other writes, and bookings last; it falls by one per sample once both are
+ * back under half their threshold. Turning cheap, retryable reads away early keeps the queue short for everything
+ * still admitted, so their latency holds during a burst.
+ */
+@Component
+public class LoadShedder {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadShedder.class);
+
+    public static final int MAX_LEVEL = 3;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${admission.shedding.enabled:true}")
+    private boolean enabled;
+    @Value("${admission.shedding.sample-ms:250}")
+    private long sampleMillis;
+    @Value("${admission.shedding.max-queue-delay-ms:200}")
+    private long maxQueueDelayMillis;
+    @Value("${admission.shedding.max-pool-wait-ms:100}")
+    private long maxPoolWaitMillis;
+
+    private volatile Executor requestExecutor;
+    private final AtomicLong probeSubmittedAt = new AtomicLong();
+    private volatile long lastQueueDelayNanos;
+
+    // A thread of its own: on the shared scheduler a long job such as the outbox dispatcher would delay the samples
+    // just when load is rising
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "load-shedder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched by the sampling thread
+    private final Map<Meter.Id, double[]> lastAcquire = new HashMap<>();
+
+    private volatile long queueDelayMillis;
+    private volatile long poolWaitMillis;
+    private volatile int level;
+
+    private final Map<EndpointClass, Counter> shedCounters = new EnumMap<>(EndpointClass.class);
+
+    @PostConstruct
+    void bindMetrics() {
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            shedCounters.put(endpoint, Counter.builder("admission.rejected")
+                    .description("Requests turned away by admission control")
+                    .tags("reason", "shed", "endpoint", endpoint.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("admission.shed.level", this, shedder -> shedder.level)
+                .description("Endpoint classes currently shed, 0 (none) to " + MAX_LEVEL)
+                .register(meterRegistry);
+        Gauge.builder("admission.queue.delay", this, shedder -> shedder.queueDelayMillis)
+                .description("Time a probe waited in the request queue at the last sample")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("admission.pool.wait", this, shedder -> shedder.poolWaitMillis)
+                .description("Mean connection acquire time of the busiest pool since the previous sample")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void startSampling() {
+        sampler.scheduleWithFixedDelay(() -> {
+            try {
+                sample();
+            } catch (RuntimeException e) {
+                // An exception would cancel every later sample
+                log.warn("Load sample failed", e);
+            }
+        }, sampleMillis, sampleMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopSampling() {
+        sampler.shutdownNow();
+    }
+
+    @EventListener
+    public void onWebServerStarted(WebServerInitializedEvent event) {
+        // The application's own connector, not a separate management port
+        if (event.getApplicationContext().getServerNamespace() == null
+                && event.getWebServer() instanceof TomcatWebServer tomcat) {
+            requestExecutor = tomcat.getTomcat().getConnector().getProtocolHandler().getExecutor();
+        }
+    }
+
+    public boolean shouldShed(EndpointClass endpoint) {
+        if (level < endpoint.getShedFromLevel()) {
+            return false;
+        }
+        shedCounters.get(endpoint).increment();
+        return true;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void sample() {
+        if (enabled) {
+            update(probeQueueDelay(), samplePoolWait());
+        }
+    }
+
+    void update(long queueDelayMillis, long poolWaitMillis) {
+        this.queueDelayMillis = queueDelayMillis;
+        this.poolWaitMillis = poolWaitMillis;
+        int previous = level;
+        if (queueDelayMillis > maxQueueDelayMillis || poolWaitMillis > maxPoolWaitMillis) {
+            level = Math.min(MAX_LEVEL, previous + 1);
+        } else if (queueDelayMillis <= maxQueueDelayMillis / 2 && poolWaitMillis <= maxPoolWaitMillis / 2) {
+            level = Math.max(0, previous - 1);
+        }
+        if (level != previous) {
+            log.info("Shed level {} -> {} (queue delay {} ms, pool wait {} ms)", previous, level, queueDelayMillis,
+                    poolWaitMillis);
+        }
+    }
+
+    private long probeQueueDelay() {
+        Executor executor = requestExecutor;
+        if (executor == null) {
+            return 0; // no embedded Tomcat, e.g. MockMvc
+        }
+        long now = System.nanoTime();
+        long pendingSince = probeSubmittedAt.get();
+        if (pendingSince != 0) {
+            // The previous probe is still queued, so the queue is at least this long
+            return TimeUnit.NANOSECONDS.toMillis(Math.max(now - pendingSince, lastQueueDelayNanos));
+        }
+        probeSubmittedAt.set(now);
+        try {
+            executor.execute(() -> {
+                lastQueueDelayNanos = System.nanoTime() - now;
+                probeSubmittedAt.set(0);
+            });
+        } catch (RejectedExecutionException e) {
+            probeSubmittedAt.set(0);
+            return Long.MAX_VALUE; // the queue is full
+        }
+        return TimeUnit.NANOSECONDS.toMillis(lastQueueDelayNanos);
+    }
+
+    private long samplePoolWait() {
+        double worst = 0;
+        Set<String> acquiring = new HashSet<>();
+        for (Timer timer : meterRegistry.find("hikaricp.connections.acquire").timers()) {
+            double total = timer.totalTime(TimeUnit.MILLISECONDS);
+            long count = timer.count();
+            double[] previous = lastAcquire.put(timer.getId(), new double[]{total, count});
+            if (previous != null && count > previous[1]) {
+                acquiring.add(timer.getId().getTag("pool"));
+                worst = Math.max(worst, (total - previous[0]) / (count - previous[1]));
+            }
+        }
+        for (Gauge pending : meterRegistry.find("hikaricp.connections.pending").gauges()) {
+            if (pending.value() > 0 && !acquiring.contains(pending.getId().getTag("pool"))) {
+                // Threads are waiting and none got a connection all sample long
+                worst = Math.max(worst, sampleMillis);
+            }
+        }
+        return (long) worst;
+    }
+}
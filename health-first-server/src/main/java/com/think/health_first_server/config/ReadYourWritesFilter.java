@@ -0,0 +1,56 @@
+package com.think.health_first_server.config;
+
+import com.think.health_first_server.service.ReadRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Client-scoped read-your-writes across instances. {@link com.think.health_first_server.service.ResourceVersions}
+ * only knows about changes made through this JVM, so a client whose next read lands on another instance would be
+ * served from a replica that may not have its write yet. Every write therefore answers with a cookie that lives as
+ * long as the tolerated replica lag, and requests carrying it read from the primary wherever they land.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "read-primary";
+    private static final Set<String> WRITES = Set.of(HttpMethod.POST.name(), HttpMethod.PUT.name(),
+            HttpMethod.PATCH.name(), HttpMethod.DELETE.name());
+
+    private final String cookie;
+
+    public ReadYourWritesFilter(long maxReplicaLagMillis) {
+        // Whole seconds, rounded up, so the cookie never expires before the replica is allowed to catch up
+        long seconds = Math.max(1, (maxReplicaLagMillis + 999) / 1000);
+        this.cookie = ResponseCookie.from(COOKIE, "1")
+                .maxAge(Duration.ofSeconds(seconds))
+                .path("/")
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build()
+                .toString();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (WebUtils.getCookie(request, COOKIE) != null) {
+            ReadRouting.requirePrimary();
+        }
+        // Set up front: the response may be committed by the time the handler returns
+        if (WRITES.contains(request.getMethod())) {
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie);
+        }
+        chain.doFilter(request, response);
+    }
+}
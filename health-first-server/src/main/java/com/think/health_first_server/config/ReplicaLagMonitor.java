@@ -0,0 +1,82 @@
+package com.think.health_first_server.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Measures how far the read replica is behind the primary with a periodic probe query. The replica only takes
+ * reads while the last probe is recent, succeeded and reported a lag within the tolerance; until the first probe,
+ * after a failure or when it falls behind, reads go to the primary.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    /**
+     * Null while the standby is not streaming from its upstream, since having replayed everything it received then
+     * says nothing about the primary; otherwise zero when it has, else the age of the last replayed commit.
+     */
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private static final long UNAVAILABLE = -1;
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final long staleAfterMillis;
+
+    private volatile long lagMillis = UNAVAILABLE;
+    private volatile long probedAt;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMillis, long probeIntervalMillis) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout((int) Math.max(1, probeIntervalMillis / 1000));
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? POSTGRES_LAG_QUERY : lagQuery;
+        this.maxLagMillis = maxLagMillis;
+        // A probe that stopped running says nothing about the lag now
+        this.staleAfterMillis = 2 * probeIntervalMillis + maxLagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-probe-ms:1000}")
+    public void probe() {
+        try {
+            Number lag = replica.queryForObject(lagQuery, Number.class);
+            if (lag == null) {
+                if (lagMillis != UNAVAILABLE) {
+                    log.warn("Replica is not streaming from the primary, reading from the primary");
+                }
+                lagMillis = UNAVAILABLE;
+                return;
+            }
+            long measured = Math.max(0, lag.longValue());
+            if (measured > maxLagMillis && lagMillis <= maxLagMillis) {
+                log.warn("Replica is {} ms behind, reading from the primary until it catches up", measured);
+            }
+            lagMillis = measured;
+            probedAt = System.currentTimeMillis();
+        } catch (DataAccessException e) {
+            if (lagMillis != UNAVAILABLE) {
+                log.warn("Replica lag probe failed, reading from the primary", e);
+            }
+            lagMillis = UNAVAILABLE;
+        }
+    }
+
+    public boolean isUsable() {
+        long lag = lagMillis;
+        return lag != UNAVAILABLE && lag <= maxLagMillis && System.currentTimeMillis() - probedAt <= staleAfterMillis;
+    }
+
+    /** Last measured lag in milliseconds, or -1 when the replica could not be probed. */
+    public long lagMillis() {
+        return lagMillis;
+    }
+}
@@ -1,23 +1,32 @@
 package com.think.health_first_server.config;
 
+import com.think.health_first_server.service.JwtService;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(@Value("${password-hashing.cost:0}") int fixedCost,
+                                           @Value("${password-hashing.target-ms:250}") long targetMillis,
+                                           @Value("${password-hashing.min-cost:10}") int minCost,
+                                           @Value("${password-hashing.max-cost:14}") int maxCost) {
+        // A fixed cost skips calibration, otherwise pick the strongest cost that meets the latency target here
+        int cost = fixedCost > 0 ? fixedCost : BcryptCostCalibrator.calibrate(targetMillis, minCost, maxCost);
+        return new BCryptPasswordEncoder(cost);
     }
 
     @Bean
@@ -30,9 +39,12 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtService jwtService,
+                                                   ClientRateLimiter rateLimiter, LoadShedder loadShedder)
+            throws Exception {
         http
                 .csrf(csrf -> csrf.disable()) // disable CSRF if you use APIs
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .headers(headers -> headers.frameOptions().disable()) // disable frame options for H2 console
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(
@@ -45,7 +57,11 @@ public class SecurityConfig {
                         .anyRequest().permitAll() // temporarily allow all requests for development
                 )
                 .formLogin(form -> form.disable()) // disable form login
-                .httpBasic(basic -> basic.disable()); // disable basic auth
+                .httpBasic(basic -> basic.disable()) // disable basic auth
+                .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class)
+                // Addresses are limited before any token is verified, subjects once the token has been
+                .addFilterBefore(new AdmissionControlFilter(rateLimiter, loadShedder), JwtAuthenticationFilter.class)
+                .addFilterAfter(new SubjectRateLimitFilter(rateLimiter), JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,46 @@
+package com.think.health_first_server.config;
+
+import com.think.health_first_server.config.AdmissionControlFilter.EndpointClass;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Second admission stage for authenticated requests: takes a token from the subject's bucket in the
+ * {@link ClientRateLimiter} once the JWT filter has verified who the caller is. The address bucket was already
+ * charged by the {@link AdmissionControlFilter}, so a request is rejected when either bucket is empty; many addresses
+ * cannot share out one subject's budget, nor many subjects one address's.
+ */
+public class SubjectRateLimitFilter extends OncePerRequestFilter {
+
+    private final ClientRateLimiter rateLimiter;
+
+    public SubjectRateLimitFilter(ClientRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        EndpointClass endpoint = AdmissionControlFilter.classify(request);
+        if (endpoint == null || !(authentication instanceof UsernamePasswordAuthenticationToken)
+                || authentication.getName() == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long waitNanos = rateLimiter.tryAcquire(endpoint, "subject:" + authentication.getName());
+        if (waitNanos > 0) {
+            AdmissionControlFilter.rejectRateLimited(response, waitNanos);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
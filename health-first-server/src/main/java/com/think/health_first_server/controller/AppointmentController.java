@@ -1,29 +1,93 @@
 package com.think.health_first_server.controller;
 
 import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dto.AgendaEntry;
 import com.think.health_first_server.dto.AppointmentRequest;
+import com.think.health_first_server.dto.BatchBookingRequest;
+import com.think.health_first_server.dto.BatchBookingResult;
+import com.think.health_first_server.service.AppointmentExportService;
+import com.think.health_first_server.service.BookingConflictException;
 import com.think.health_first_server.service.AppointmentService;
+import com.think.health_first_server.service.IdempotencyKeyInProgressException;
+import com.think.health_first_server.service.IdempotencyKeyReusedException;
+import com.think.health_first_server.service.IdempotencyService;
+import com.think.health_first_server.service.ProviderAgendaService;
+import com.think.health_first_server.service.ResourceVersions;
+import com.think.health_first_server.service.ResourceVersions.Scope;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import com.think.health_first_server.dto.AppointmentResponse;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/appointments")
 public class AppointmentController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final int MAX_BATCH_SIZE = 1000;
+    
     @Autowired
     private AppointmentService appointmentService;
     
+    @Autowired
+    private AppointmentExportService appointmentExportService;
+    
+    @Autowired
+    private ProviderAgendaService agendaService;
+    
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
     @PostMapping("/book")
-    public ResponseEntity<?> bookAppointment(@Valid @RequestBody AppointmentRequest request) {
+    public ResponseEntity<?> bookAppointment(@Valid @RequestBody AppointmentRequest request,
+                                             @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return book(request);
+        }
+        try {
+            IdempotencyService.StoredResponse response =
+                    idempotencyService.execute(idempotencyKey, request, () -> book(request));
+            return ResponseEntity.status(response.status())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(IDEMPOTENT_REPLAYED, Boolean.toString(response.replayed()))
+                    .body(response.body());
+        } catch (IdempotencyKeyReusedException e) {
+            return ResponseEntity.unprocessableEntity().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        } catch (IdempotencyKeyInProgressException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        }
+    }
+    
+    private ResponseEntity<?> book(AppointmentRequest request) {
         try {
             Appointment appointment = appointmentService.createAppointment(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
@@ -39,6 +103,11 @@ public class AppointmentController {
                             "status", appointment.getStatus()
                     )
             ));
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -52,15 +121,44 @@ public class AppointmentController {
         }
     }
     
-    @GetMapping
-    public ResponseEntity<?> getAllAppointments() {
+    @PostMapping("/book/batch")
+    public ResponseEntity<?> bookAppointments(@Valid @RequestBody BatchBookingRequest request) {
+        List<AppointmentRequest> appointments = request.getAppointments();
+        if (appointments == null || appointments.isEmpty() || appointments.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "A batch must contain between 1 and " + MAX_BATCH_SIZE + " appointments"
+            ));
+        }
         try {
-            List<Appointment> appointments = appointmentService.getAllAppointments();
-            List<AppointmentResponse> appointmentResponses = appointments.stream()
-                    .map(AppointmentResponse::fromAppointment)
-                    .collect(Collectors.toList());
-            
+            List<BatchBookingResult> results = appointmentService.createAppointments(appointments);
+            long booked = results.stream().filter(BatchBookingResult::isSuccess).count();
             return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", booked + " of " + results.size() + " appointments booked",
+                    "data", Map.of(
+                            "booked", booked,
+                            "failed", results.size() - booked,
+                            "results", results
+                    )
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "success", false,
+                    "message", "Failed to book appointments: " + e.getMessage()
+            ));
+        }
+    }
+    
+    @GetMapping
+    public ResponseEntity<?> getAllAppointments(ServletWebRequest webRequest) {
+        String etag = resourceVersions.etag(Scope.ALL_APPOINTMENTS, null);
+        if (ConditionalGet.notModified(webRequest, etag)) {
+            return null;
+        }
+        try {
+            List<AppointmentResponse> appointmentResponses = appointmentService.getAllAppointments();
+            return ConditionalGet.ok(etag).body(Map.of(
                     "success", true,
                     "message", "Appointments retrieved successfully",
                     "data", appointmentResponses
@@ -73,11 +171,22 @@ public class AppointmentController {
         }
     }
     
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void exportAppointments(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        appointmentExportService.exportNdjson(response.getOutputStream());
+    }
+    
     @GetMapping("/patient/{patientId}")
-    public ResponseEntity<?> getAppointmentsByPatient(@PathVariable UUID patientId) {
+    public ResponseEntity<?> getAppointmentsByPatient(@PathVariable UUID patientId, ServletWebRequest webRequest) {
+        String etag = resourceVersions.etag(Scope.PATIENT_APPOINTMENTS, patientId);
+        if (ConditionalGet.notModified(webRequest, etag)) {
+            return null;
+        }
         try {
-            List<Appointment> appointments = appointmentService.getAppointmentsByPatient(patientId);
-            return ResponseEntity.ok(Map.of(
+            List<AppointmentResponse> appointments = appointmentService.getAppointmentsByPatient(patientId);
+            return ConditionalGet.ok(etag).body(Map.of(
                     "success", true,
                     "message", "Patient appointments retrieved successfully",
                     "data", appointments
@@ -91,10 +200,14 @@ public class AppointmentController {
     }
     
     @GetMapping("/provider/{providerId}")
-    public ResponseEntity<?> getAppointmentsByProvider(@PathVariable UUID providerId) {
+    public ResponseEntity<?> getAppointmentsByProvider(@PathVariable UUID providerId, ServletWebRequest webRequest) {
+        String etag = resourceVersions.etag(Scope.PROVIDER_APPOINTMENTS, providerId);
+        if (ConditionalGet.notModified(webRequest, etag)) {
+            return null;
+        }
         try {
-            List<Appointment> appointments = appointmentService.getAppointmentsByProvider(providerId);
-            return ResponseEntity.ok(Map.of(
+            List<AppointmentResponse> appointments = appointmentService.getAppointmentsByProvider(providerId);
+            return ConditionalGet.ok(etag).body(Map.of(
                     "success", true,
                     "message", "Provider appointments retrieved successfully",
                     "data", appointments
@@ -107,11 +220,37 @@ public class AppointmentController {
         }
     }
     
+    @GetMapping("/provider/{providerId}/agenda")
+    public ResponseEntity<?> getProviderAgenda(
+            @PathVariable UUID providerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            ServletWebRequest webRequest) {
+        LocalDate day = date != null ? date : LocalDate.now();
+        String etag = resourceVersions.etag(Scope.PROVIDER_APPOINTMENTS, providerId, day);
+        if (ConditionalGet.notModified(webRequest, etag)) {
+            return null;
+        }
+        List<AgendaEntry> agenda = agendaService.getAgenda(providerId, day);
+        return ConditionalGet.ok(etag).body(Map.of(
+                "success", true,
+                "message", "Provider agenda retrieved successfully",
+                "data", Map.of(
+                        "provider_id", providerId,
+                        "date", day,
+                        "appointments", agenda
+                )
+        ));
+    }
+    
     @GetMapping("/{appointmentId}")
-    public ResponseEntity<?> getAppointmentById(@PathVariable UUID appointmentId) {
+    public ResponseEntity<?> getAppointmentById(@PathVariable UUID appointmentId, ServletWebRequest webRequest) {
+        String etag = resourceVersions.etag(Scope.APPOINTMENT, appointmentId);
+        if (ConditionalGet.notModified(webRequest, etag)) {
+            return null;
+        }
         try {
-            Appointment appointment = appointmentService.getAppointmentById(appointmentId);
-            return ResponseEntity.ok(Map.of(
+            AppointmentResponse appointment = appointmentService.getAppointmentById(appointmentId);
+            return ConditionalGet.ok(etag).body(Map.of(
                     "success", true,
                     "message", "Appointment retrieved successfully",
                     "data", appointment
@@ -135,7 +274,12 @@ public class AppointmentController {
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Appointment status updated successfully",
-                    "data", appointment
+                    "data", AppointmentResponse.fromAppointment(appointment)
+            ));
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
             ));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
@@ -0,0 +1,68 @@
+package com.think.health_first_server.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * If-None-Match handling for read endpoints whose ETag is known before anything is loaded. Responses may be stored
+ * but must be revalidated, which overrides Spring Security's default no-store. The ETag goes out with a 304 or with
+ * a successful body only, never with the 404 or 500 a handler may still produce after the check.
+ */
+final class ConditionalGet {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    /** True when the client's copy is current and a 304 carrying the ETag has been prepared. */
+    static boolean notModified(ServletWebRequest request, String etag) {
+        HttpServletResponse response = request.getResponse();
+        if (response == null) {
+            return request.checkNotModified(etag);
+        }
+        // Spring would put the ETag on the response whatever the handler goes on to return
+        boolean notModified = new ServletWebRequest(request.getRequest(), new WithoutEtag(response))
+                .checkNotModified(etag);
+        if (notModified && response.getStatus() == HttpStatus.NOT_MODIFIED.value()) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+        }
+        return notModified;
+    }
+
+    /** A 200 carrying the ETag taken before the body was read, and the cache headers. */
+    static ResponseEntity.BodyBuilder ok(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE);
+    }
+
+    private static final class WithoutEtag extends HttpServletResponseWrapper {
+        WithoutEtag(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return HttpHeaders.ETAG.equalsIgnoreCase(name) ? null : super.getHeader(name);
+        }
+    }
+}
@@ -1,18 +1,43 @@
 package com.think.health_first_server.controller;
 
 import com.think.health_first_server.dao.ProviderAvailability;
+import com.think.health_first_server.dto.AvailabilityImportResult;
+import com.think.health_first_server.dto.AvailabilitySlot;
+import com.think.health_first_server.dto.OpenSlot;
 import com.think.health_first_server.dto.ProviderAvailabilityRequest;
+import com.think.health_first_server.dto.SlotSearchRequest;
+import com.think.health_first_server.service.AvailabilityImportService;
+import com.think.health_first_server.service.AvailabilityStreamService;
 import com.think.health_first_server.service.ProviderAvailabilityService;
+import com.think.health_first_server.service.ResourceVersions;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/provider/availability")
 public class ProviderAvailabilityController {
+    private static final long MAX_SLOT_WINDOW_DAYS = 92;
+
     @Autowired
     private ProviderAvailabilityService availabilityService;
+    @Autowired
+    private AvailabilityImportService importService;
+    @Autowired
+    private AvailabilityStreamService streamService;
+    @Autowired
+    private ResourceVersions resourceVersions;
 
     @PostMapping
     public ResponseEntity<?> createAvailability(@Valid @RequestBody ProviderAvailabilityRequest request) {
@@ -25,13 +50,91 @@ public class ProviderAvailabilityController {
         );
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<?> importCsv(HttpServletRequest request) throws IOException {
+        try {
+            return importResponse(importService.importCsv(request.getInputStream()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<?> importNdjson(HttpServletRequest request) throws IOException {
+        return importResponse(importService.importNdjson(request.getInputStream()));
+    }
+
+    private ResponseEntity<?> importResponse(AvailabilityImportResult result) {
+        return ResponseEntity.ok().body(
+                java.util.Map.of(
+                        "message", "Imported " + result.getImported() + " availability slots, " + result.getFailed() + " failed.",
+                        "imported", result.getImported(),
+                        "failed", result.getFailed(),
+                        "errors", result.getErrors()
+                )
+        );
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchOpenSlots(SlotSearchRequest request) {
+        if (request.getFrom() != null && request.getTo() != null && request.getTo().isBefore(request.getFrom())) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("message", "'to' must not be before 'from'"));
+        }
+        List<OpenSlot> slots = availabilityService.searchOpenSlots(request);
+        return ResponseEntity.ok().body(
+                java.util.Map.of(
+                        "count", slots.size(),
+                        "slots", slots
+                )
+        );
+    }
+
+    /** Open-slot deltas for every provider matching the search filters, as Server-Sent Events. */
+    @GetMapping(value = "/search/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOpenSlots(SlotSearchRequest request) {
+        return streamService.subscribeSearch(request);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> getAvailability(@PathVariable("id") java.util.UUID id) {
+    public ResponseEntity<?> getAvailability(@PathVariable("id") java.util.UUID id, ServletWebRequest webRequest) {
+        String etag = resourceVersions.etag(ResourceVersions.Scope.AVAILABILITY, id);
+        if (ConditionalGet.notModified(webRequest, etag)) {
+            return null;
+        }
         ProviderAvailability availability = availabilityService.getAvailability(id);
         if (availability == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(availability);
+        return ConditionalGet.ok(etag).body(availability);
+    }
+
+    @GetMapping("/provider/{providerId}/slots")
+    public ResponseEntity<?> getSlots(@PathVariable("providerId") java.util.UUID providerId,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                      ServletWebRequest webRequest) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) > MAX_SLOT_WINDOW_DAYS) {
+            return ResponseEntity.badRequest().body(
+                    java.util.Map.of("message", "Date window must be between 0 and " + MAX_SLOT_WINDOW_DAYS + " days")
+            );
+        }
+        String etag = resourceVersions.etag(ResourceVersions.Scope.PROVIDER_AVAILABILITY, providerId);
+        if (ConditionalGet.notModified(webRequest, etag)) {
+            return null;
+        }
+        List<AvailabilitySlot> slots = availabilityService.getSlots(providerId, from, to);
+        return ConditionalGet.ok(etag).body(
+                java.util.Map.of(
+                        "provider_id", providerId,
+                        "slots", slots
+                )
+        );
+    }
+
+    /** Slot deltas for one provider, as Server-Sent Events. */
+    @GetMapping(value = "/provider/{providerId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSlots(@PathVariable("providerId") java.util.UUID providerId) {
+        return streamService.subscribeProvider(providerId);
     }
 
     @PutMapping("/{id}")
@@ -12,6 +12,9 @@ import java.util.UUID;
 @Data
 public class Appointment {
     
+    public static final int DEFAULT_DURATION_MINUTES = 30;
+    public static final int MAX_DURATION_MINUTES = 8 * 60;
+    
     @Id
     @GeneratedValue(generator = "UUID")
     @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
@@ -38,6 +41,9 @@ public class Appointment {
     @Column(name = "appointment_date_time", nullable = false)
     private LocalDateTime appointmentDateTime;
     
+    @Column(name = "duration_minutes")
+    private Integer durationMinutes = DEFAULT_DURATION_MINUTES;
+    
     @Column(name = "reason_for_visit", columnDefinition = "TEXT")
     private String reasonForVisit;
     
@@ -0,0 +1,62 @@
+package com.think.health_first_server.dao;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An appointment moved out of the hot {@code appointments} table by the archiver once it was final and past the
+ * retention window. Rows are written by the archiver's INSERT ... SELECT and never change afterwards.
+ */
+@Entity
+@Immutable
+@Table(name = "appointments_archive")
+@Getter
+@Setter
+public class ArchivedAppointment {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "patient_id", nullable = false)
+    private UUID patientId;
+
+    @Column(name = "provider_id", nullable = false)
+    private UUID providerId;
+
+    @Column(name = "appointment_mode", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Appointment.AppointmentMode appointmentMode;
+
+    @Column(name = "appointment_type", nullable = false)
+    private String appointmentType;
+
+    @Column(name = "estimated_amount")
+    private Double estimatedAmount;
+
+    @Column(name = "appointment_date_time", nullable = false)
+    private LocalDateTime appointmentDateTime;
+
+    @Column(name = "duration_minutes")
+    private Integer durationMinutes;
+
+    @Column(name = "reason_for_visit", columnDefinition = "TEXT")
+    private String reasonForVisit;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Appointment.AppointmentStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,21 @@
+package com.think.health_first_server.dto;
+
+import com.think.health_first_server.dao.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class AgendaEntry {
+    private UUID appointmentId;
+    private LocalDateTime appointmentDateTime;
+    private Integer durationMinutes;
+    private UUID patientId;
+    private String patientName;
+    private Appointment.AppointmentMode appointmentMode;
+    private String appointmentType;
+    private Appointment.AppointmentStatus status;
+}
@@ -29,5 +29,8 @@ public class AppointmentRequest {
     @NotNull(message = "Appointment date and time is required")
     private LocalDateTime appointmentDateTime;
     
+    @Positive(message = "Duration must be positive")
+    private Integer durationMinutes;
+    
     private String reasonForVisit;
 } 
\ No newline at end of file
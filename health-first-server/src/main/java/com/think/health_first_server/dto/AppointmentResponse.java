@@ -1,12 +1,16 @@
 package com.think.health_first_server.dto;
 
 import com.think.health_first_server.dao.Appointment;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class AppointmentResponse {
     private UUID id;
     private UUID patientId;
@@ -17,6 +21,7 @@ public class AppointmentResponse {
     private String appointmentType;
     private Double estimatedAmount;
     private LocalDateTime appointmentDateTime;
+    private Integer durationMinutes;
     private String reasonForVisit;
     private Appointment.AppointmentStatus status;
     private LocalDateTime createdAt;
@@ -33,6 +38,7 @@ public class AppointmentResponse {
         response.setAppointmentType(appointment.getAppointmentType());
         response.setEstimatedAmount(appointment.getEstimatedAmount());
         response.setAppointmentDateTime(appointment.getAppointmentDateTime());
+        response.setDurationMinutes(appointment.getDurationMinutes());
         response.setReasonForVisit(appointment.getReasonForVisit());
         response.setStatus(appointment.getStatus());
         response.setCreatedAt(appointment.getCreatedAt());
@@ -0,0 +1,16 @@
+package com.think.health_first_server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class AppointmentSlot {
+    private UUID appointmentId;
+    private UUID providerId;
+    private LocalDateTime appointmentDateTime;
+    private Integer durationMinutes;
+}
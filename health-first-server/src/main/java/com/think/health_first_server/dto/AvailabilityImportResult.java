@@ -0,0 +1,21 @@
+package com.think.health_first_server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class AvailabilityImportResult {
+    private long imported;
+    private long failed;
+    private List<LineError> errors; // capped, see failed for the full count
+
+    @Getter
+    @AllArgsConstructor
+    public static class LineError {
+        private long line;
+        private String message;
+    }
+}
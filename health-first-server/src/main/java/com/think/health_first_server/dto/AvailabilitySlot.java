@@ -0,0 +1,19 @@
+package com.think.health_first_server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class AvailabilitySlot {
+    private UUID availabilityId;
+    private UUID providerId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private String appointmentType;
+    private String locationType;
+    private int maxAppointments;
+}
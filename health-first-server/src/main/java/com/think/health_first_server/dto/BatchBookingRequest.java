@@ -0,0 +1,17 @@
+package com.think.health_first_server.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchBookingRequest {
+
+    @NotEmpty(message = "At least one appointment is required")
+    @Size(max = 1000, message = "A batch may contain at most 1000 appointments")
+    @Valid
+    private List<AppointmentRequest> appointments;
+}
@@ -0,0 +1,23 @@
+package com.think.health_first_server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class BatchBookingResult {
+    private int index;
+    private boolean success;
+    private UUID appointmentId;
+    private String message;
+
+    public static BatchBookingResult booked(int index, UUID appointmentId) {
+        return new BatchBookingResult(index, true, appointmentId, "Appointment booked successfully");
+    }
+
+    public static BatchBookingResult failed(int index, String message) {
+        return new BatchBookingResult(index, false, null, message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.think.health_first_server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class OpenSlot {
+    private UUID providerId;
+    private String providerName;
+    private String specialization;
+    private String city;
+    private String state;
+    private String zip;
+    private UUID availabilityId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private String appointmentType;
+    private String locationType;
+    private int freeCapacity;
+}
@@ -20,6 +20,7 @@ public class ProviderAvailabilityRequest {
     private LocalDate recurrenceEndDate;
     private int slotDuration;
     private int breakDuration;
+    private Integer maxAppointmentsPerSlot;
     private String appointmentType;
     private String locationType;
     private String locationAddress;
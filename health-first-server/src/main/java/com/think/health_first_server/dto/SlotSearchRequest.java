@@ -0,0 +1,26 @@
+package com.think.health_first_server.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class SlotSearchRequest {
+    private String specialization;
+    private String city;
+    private String state;
+    private String zip;
+    private String locationType;
+    private String appointmentType;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private int limit = 50;
+}
@@ -0,0 +1,37 @@
+package com.think.health_first_server.event;
+
+import com.think.health_first_server.dao.Appointment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class AppointmentChangedEvent {
+    private UUID appointmentId;
+    private UUID patientId;
+    private UUID providerId;
+    private LocalDateTime appointmentDateTime;
+    private Integer durationMinutes;
+    private Appointment.AppointmentStatus previousStatus; // null for a new booking
+    private Appointment.AppointmentStatus status;
+    private String patientName;
+    private Appointment.AppointmentMode appointmentMode;
+    private String appointmentType;
+
+    public static AppointmentChangedEvent of(Appointment appointment, Appointment.AppointmentStatus previousStatus) {
+        return new AppointmentChangedEvent(
+                appointment.getId(),
+                appointment.getPatient().getId(),
+                appointment.getProvider().getId(),
+                appointment.getAppointmentDateTime(),
+                appointment.getDurationMinutes(),
+                previousStatus,
+                appointment.getStatus(),
+                appointment.getPatient().getFirstName() + " " + appointment.getPatient().getLastName(),
+                appointment.getAppointmentMode(),
+                appointment.getAppointmentType());
+    }
+}
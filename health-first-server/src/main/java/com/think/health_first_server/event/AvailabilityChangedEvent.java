@@ -0,0 +1,12 @@
+package com.think.health_first_server.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class AvailabilityChangedEvent {
+    private UUID providerId;
+}
@@ -0,0 +1,25 @@
+package com.think.health_first_server.event;
+
+import com.think.health_first_server.dto.OpenSlot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by the slot search index after it has applied a committed change. {@code slots} holds only the slots
+ * whose free capacity changed, with their new capacity (0 when taken). A reset means the provider's availability
+ * rules changed and its slots should be fetched again; the provider fields are null when the provider is gone.
+ */
+@Getter
+@AllArgsConstructor
+public class OpenSlotsChangedEvent {
+    private UUID providerId;
+    private String specialization;
+    private String city;
+    private String state;
+    private String zip;
+    private boolean reset;
+    private List<OpenSlot> slots;
+}
@@ -1,18 +1,43 @@
 package com.think.health_first_server.repo;
 
 import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dto.AgendaEntry;
+import com.think.health_first_server.dto.AppointmentResponse;
+import com.think.health_first_server.dto.AppointmentSlot;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, UUID> {
     
+    // Selects exactly the AppointmentResponse fields in one statement, with no entities or lazy proxies involved
+    String RESPONSE_PROJECTION = "SELECT new com.think.health_first_server.dto.AppointmentResponse(" +
+            "a.id, pa.id, CONCAT(pa.firstName, ' ', pa.lastName), pr.id, CONCAT(pr.firstName, ' ', pr.lastName), " +
+            "a.appointmentMode, a.appointmentType, a.estimatedAmount, a.appointmentDateTime, a.durationMinutes, " +
+            "a.reasonForVisit, a.status, a.createdAt, a.updatedAt) " +
+            "FROM Appointment a JOIN a.patient pa JOIN a.provider pr ";
+    
+    @Query("SELECT new com.think.health_first_server.dto.AgendaEntry(a.id, a.appointmentDateTime, a.durationMinutes, " +
+            "pa.id, CONCAT(pa.firstName, ' ', pa.lastName), a.appointmentMode, a.appointmentType, a.status) " +
+            "FROM Appointment a JOIN a.patient pa " +
+            "WHERE a.provider.id = :providerId AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to " +
+            "ORDER BY a.appointmentDateTime")
+    List<AgendaEntry> findAgenda(@Param("providerId") UUID providerId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+    
     List<Appointment> findByPatientId(UUID patientId);
     
     List<Appointment> findByProviderId(UUID providerId);
@@ -25,4 +50,42 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.provider.id = :providerId AND a.appointmentDateTime = :appointmentDateTime AND a.status NOT IN ('CANCELLED')")
     long countConflictingAppointments(@Param("providerId") UUID providerId, 
                                      @Param("appointmentDateTime") LocalDateTime appointmentDateTime);
-} 
\ No newline at end of file
+    
+    @Query(RESPONSE_PROJECTION + "ORDER BY a.appointmentDateTime")
+    List<AppointmentResponse> findAllResponses();
+    
+    @Query(RESPONSE_PROJECTION + "WHERE pa.id = :patientId ORDER BY a.appointmentDateTime")
+    List<AppointmentResponse> findResponsesByPatientId(@Param("patientId") UUID patientId);
+    
+    @Query(RESPONSE_PROJECTION + "WHERE pr.id = :providerId ORDER BY a.appointmentDateTime")
+    List<AppointmentResponse> findResponsesByProviderId(@Param("providerId") UUID providerId);
+    
+    @Query(RESPONSE_PROJECTION + "WHERE a.id = :appointmentId")
+    Optional<AppointmentResponse> findResponseById(@Param("appointmentId") UUID appointmentId);
+    
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.patient JOIN FETCH a.provider WHERE a.id = :appointmentId")
+    Optional<Appointment> findWithPatientAndProviderById(@Param("appointmentId") UUID appointmentId);
+    
+    @Query("SELECT new com.think.health_first_server.dto.AppointmentSlot(a.id, a.provider.id, a.appointmentDateTime, a.durationMinutes) " +
+           "FROM Appointment a WHERE a.appointmentDateTime >= :from AND a.status NOT IN ('CANCELLED')")
+    List<AppointmentSlot> findActiveSlotsFrom(@Param("from") LocalDateTime from);
+    
+    @Query("SELECT new com.think.health_first_server.dto.AppointmentSlot(a.id, a.provider.id, a.appointmentDateTime, a.durationMinutes) " +
+           "FROM Appointment a WHERE a.provider.id = :providerId AND a.appointmentDateTime > :from " +
+           "AND a.appointmentDateTime < :to AND a.status NOT IN ('CANCELLED')")
+    List<AppointmentSlot> findActiveSlotsBetween(@Param("providerId") UUID providerId,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+    
+    /** Oldest final appointments before the cutoff, as (id, patient id, provider id). */
+    @Query("SELECT a.id, a.patient.id, a.provider.id FROM Appointment a " +
+           "WHERE a.status IN ('COMPLETED', 'CANCELLED', 'NO_SHOW') AND a.appointmentDateTime < :cutoff " +
+           "ORDER BY a.appointmentDateTime")
+    List<Object[]> findArchivable(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query("DELETE FROM Appointment a WHERE a.id IN :ids AND a.status IN ('COMPLETED', 'CANCELLED', 'NO_SHOW') " +
+           "AND a.appointmentDateTime < :cutoff")
+    int deleteArchived(@Param("ids") Collection<UUID> ids, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,70 @@
+package com.think.health_first_server.repo;
+
+import com.think.health_first_server.dao.ArchivedAppointment;
+import com.think.health_first_server.dto.AgendaEntry;
+import com.think.health_first_server.dto.AppointmentResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, UUID> {
+
+    // Same shape as AppointmentRepository.RESPONSE_PROJECTION, so both tiers merge into one list
+    String RESPONSE_PROJECTION = "SELECT new com.think.health_first_server.dto.AppointmentResponse(" +
+            "a.id, pa.id, CONCAT(pa.firstName, ' ', pa.lastName), pr.id, CONCAT(pr.firstName, ' ', pr.lastName), " +
+            "a.appointmentMode, a.appointmentType, a.estimatedAmount, a.appointmentDateTime, a.durationMinutes, " +
+            "a.reasonForVisit, a.status, a.createdAt, a.updatedAt) " +
+            "FROM ArchivedAppointment a JOIN Patient pa ON pa.id = a.patientId JOIN Provider pr ON pr.id = a.providerId ";
+
+    @Query(RESPONSE_PROJECTION + "WHERE a.patientId = :patientId ORDER BY a.appointmentDateTime")
+    List<AppointmentResponse> findResponsesByPatientId(@Param("patientId") UUID patientId);
+
+    @Query(RESPONSE_PROJECTION + "WHERE a.providerId = :providerId ORDER BY a.appointmentDateTime")
+    List<AppointmentResponse> findResponsesByProviderId(@Param("providerId") UUID providerId);
+
+    @Query(RESPONSE_PROJECTION + "WHERE a.id = :appointmentId")
+    Optional<AppointmentResponse> findResponseById(@Param("appointmentId") UUID appointmentId);
+
+    @Query("SELECT new com.think.health_first_server.dto.AgendaEntry(a.id, a.appointmentDateTime, a.durationMinutes, " +
+            "pa.id, CONCAT(pa.firstName, ' ', pa.lastName), a.appointmentMode, a.appointmentType, a.status) " +
+            "FROM ArchivedAppointment a JOIN Patient pa ON pa.id = a.patientId " +
+            "WHERE a.providerId = :providerId AND a.appointmentDateTime >= :from AND a.appointmentDateTime < :to " +
+            "ORDER BY a.appointmentDateTime")
+    List<AgendaEntry> findAgenda(@Param("providerId") UUID providerId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+
+    @Query("SELECT DISTINCT a.patientId FROM ArchivedAppointment a")
+    List<UUID> findArchivedPatientIds();
+
+    @Query("SELECT DISTINCT a.providerId FROM ArchivedAppointment a")
+    List<UUID> findArchivedProviderIds();
+
+    /**
+     * Copies the given hot rows that are still archivable. Only runs inside the move transaction, together with
+     * {@link AppointmentRepository#deleteArchived}, which removes exactly the same rows.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "INSERT INTO appointments_archive (id, patient_id, provider_id, appointment_mode, " +
+            "appointment_type, estimated_amount, appointment_date_time, duration_minutes, reason_for_visit, status, " +
+            "created_at, updated_at, archived_at) " +
+            "SELECT id, patient_id, provider_id, appointment_mode, appointment_type, estimated_amount, " +
+            "appointment_date_time, duration_minutes, reason_for_visit, status, created_at, updated_at, " +
+            "CAST(:archivedAt AS TIMESTAMP) " +
+            "FROM appointments WHERE id IN (:ids) AND status IN ('COMPLETED', 'CANCELLED', 'NO_SHOW') " +
+            "AND appointment_date_time < :cutoff", nativeQuery = true)
+    int copyFromHot(@Param("ids") Collection<UUID> ids, @Param("cutoff") LocalDateTime cutoff,
+                    @Param("archivedAt") LocalDateTime archivedAt);
+}
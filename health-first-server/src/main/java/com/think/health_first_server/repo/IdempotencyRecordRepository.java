@@ -0,0 +1,74 @@
+package com.think.health_first_server.repo;
+
+import com.think.health_first_server.dao.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /** Read as a projection so a caller polling within one request never gets the persistence context's copy. */
+    @Query("SELECT r.requestHash AS requestHash, r.status AS status, r.responseStatus AS responseStatus, " +
+           "r.responseBody AS responseBody, r.lockedAt AS lockedAt, r.expiresAt AS expiresAt " +
+           "FROM IdempotencyRecord r WHERE r.id = :id")
+    Optional<Snapshot> findSnapshot(@Param("id") String id);
+
+    /** Fails with a duplicate key when the id is already claimed. */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (id, request_hash, status, locked_at, expires_at) " +
+                   "VALUES (:id, :requestHash, 'IN_PROGRESS', :lockedAt, :expiresAt)", nativeQuery = true)
+    int insertInProgress(@Param("id") String id, @Param("requestHash") String requestHash,
+                         @Param("lockedAt") LocalDateTime lockedAt, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /** Claims a key held past the in-flight timeout, e.g. by an instance that died; only one caller sees 1. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.lockedAt = :now WHERE r.id = :id " +
+           "AND r.status = 'IN_PROGRESS' AND r.lockedAt = :seenLockedAt")
+    int takeOver(@Param("id") String id, @Param("seenLockedAt") LocalDateTime seenLockedAt,
+                 @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = 'COMPLETED', r.responseStatus = :responseStatus, " +
+           "r.responseBody = :responseBody, r.expiresAt = :expiresAt WHERE r.id = :id AND r.status = 'IN_PROGRESS'")
+    int complete(@Param("id") String id, @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.status = 'IN_PROGRESS'")
+    int release(@Param("id") String id);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.expiresAt < :now")
+    int deleteIfExpired(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    interface Snapshot {
+        String getRequestHash();
+
+        IdempotencyRecord.Status getStatus();
+
+        Integer getResponseStatus();
+
+        String getResponseBody();
+
+        LocalDateTime getLockedAt();
+
+        LocalDateTime getExpiresAt();
+    }
+}
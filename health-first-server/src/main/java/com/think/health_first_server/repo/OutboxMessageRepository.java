@@ -0,0 +1,45 @@
+package com.think.health_first_server.repo;
+
+import com.think.health_first_server.dao.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    @Query("SELECT m FROM OutboxMessage m WHERE m.status = 'PENDING' AND m.nextAttemptAt <= :now AND m.id > :after " +
+           "ORDER BY m.id")
+    List<OutboxMessage> findDue(@Param("now") LocalDateTime now, @Param("after") long after, Pageable pageable);
+
+    /** Per recipient, the oldest pending message still backing off; nothing newer may overtake it. */
+    @Query("SELECT m.recipient, MIN(m.id) FROM OutboxMessage m WHERE m.status = 'PENDING' AND m.nextAttemptAt > :now " +
+           "AND m.recipient IN :recipients GROUP BY m.recipient")
+    List<Object[]> findOldestWaiting(@Param("now") LocalDateTime now, @Param("recipients") Collection<String> recipients);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = 'SENT', m.sentAt = :sentAt, m.attempts = m.attempts + 1 " +
+           "WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :status, m.attempts = m.attempts + 1, " +
+           "m.nextAttemptAt = :nextAttemptAt, m.lastError = :error WHERE m.id = :id")
+    int markFailedAttempt(@Param("id") Long id, @Param("status") OutboxMessage.OutboxStatus status,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxMessage m WHERE m.status = 'SENT' AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -2,8 +2,13 @@ package com.think.health_first_server.repo;
 
 import com.think.health_first_server.dao.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,5 +19,16 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
     boolean existsByPhoneNumber(String phoneNumber);
 
     Optional<Patient> findByEmail(String email);
+
+    @Query("SELECT p.email FROM Patient p WHERE p.email IS NOT NULL")
+    List<String> findAllEmails();
+
+    @Query("SELECT p.phoneNumber FROM Patient p WHERE p.phoneNumber IS NOT NULL")
+    List<String> findAllPhoneNumbers();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Patient p SET p.passwordHash = :newHash WHERE p.id = :id AND p.passwordHash = :oldHash")
+    int updatePasswordHash(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
 
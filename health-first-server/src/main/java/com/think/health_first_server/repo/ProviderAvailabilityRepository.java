@@ -2,11 +2,25 @@ package com.think.health_first_server.repo;
 
 import com.think.health_first_server.dao.ProviderAvailability;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ProviderAvailabilityRepository extends JpaRepository<ProviderAvailability, UUID> {
-    // Custom queries can be added here
+
+    @Query("SELECT a FROM ProviderAvailability a WHERE a.provider.id = :providerId AND a.date <= :to " +
+           "AND (a.date >= :from OR (a.isRecurring = true AND (a.recurrenceEndDate IS NULL OR a.recurrenceEndDate >= :from)))")
+    List<ProviderAvailability> findRulesInWindow(@Param("providerId") UUID providerId,
+                                                 @Param("from") LocalDate from,
+                                                 @Param("to") LocalDate to);
+
+    @Query("SELECT a FROM ProviderAvailability a JOIN FETCH a.provider WHERE a.date <= :to " +
+           "AND (a.date >= :from OR (a.isRecurring = true AND (a.recurrenceEndDate IS NULL OR a.recurrenceEndDate >= :from)))")
+    List<ProviderAvailability> findAllRulesInWindow(@Param("from") LocalDate from,
+                                                    @Param("to") LocalDate to);
 }
@@ -2,7 +2,12 @@ package com.think.health_first_server.repo;
 
 import com.think.health_first_server.dao.Provider;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,5 +21,22 @@ public interface ProviderRepository extends JpaRepository<Provider, UUID> {
 
     boolean existsByLicenseNumber(String licenseNumber);
 
+    @Query("SELECT p.id FROM Provider p")
+    List<UUID> findAllIds();
+
+    @Query("SELECT p.email FROM Provider p WHERE p.email IS NOT NULL")
+    List<String> findAllEmails();
+
+    @Query("SELECT p.phoneNumber FROM Provider p WHERE p.phoneNumber IS NOT NULL")
+    List<String> findAllPhoneNumbers();
+
+    @Query("SELECT p.licenseNumber FROM Provider p WHERE p.licenseNumber IS NOT NULL")
+    List<String> findAllLicenseNumbers();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Provider p SET p.passwordHash = :newHash WHERE p.id = :id AND p.passwordHash = :oldHash")
+    int updatePasswordHash(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
 }
 
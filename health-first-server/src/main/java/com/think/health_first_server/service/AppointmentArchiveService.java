@@ -0,0 +1,187 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.repo.AppointmentRepository;
+import com.think.health_first_server.repo.ArchivedAppointmentRepository;
+import com.think.health_first_server.service.ResourceVersions.Scope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves final appointments (completed, cancelled, no-show) older than the retention window from the hot
+ * {@code appointments} table into {@code appointments_archive}, in chunks, so the table the booking path writes to
+ * only holds recent and open appointments.
+ * <p>
+ * Each chunk is moved per provider under that provider's booking lock, with one INSERT ... SELECT and one DELETE in
+ * the same transaction. Appointments that qualify are read-only (see {@link #isArchivable}), so a status change
+ * cannot race with the move. Bloom filters over the patient and provider ids with archived rows let the history
+ * reads skip the archive for everyone who has none; ids are recorded as pending before their rows move, so a reader
+ * never misses a row in between, and stay pending until the move has committed, so a reload cannot drop them.
+ */
+@Service
+public class AppointmentArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentArchiveService.class);
+
+    private static final Set<Appointment.AppointmentStatus> FINAL_STATUSES = EnumSet.of(
+            Appointment.AppointmentStatus.COMPLETED, Appointment.AppointmentStatus.CANCELLED,
+            Appointment.AppointmentStatus.NO_SHOW);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ArchivedAppointmentRepository archiveRepository;
+    @Autowired
+    private AppointmentScheduleIndex scheduleIndex;
+    @Autowired
+    private BookingLocks bookingLocks;
+    @Autowired
+    private ResourceVersions resourceVersions;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${appointments.archive.retention-days:365}")
+    private int retentionDays;
+    @Value("${appointments.archive.chunk-size:500}")
+    private int chunkSize;
+    @Value("${appointments.archive.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+    @Value("${appointments.archive.bloom.expected-insertions:100000}")
+    private long expectedInsertions;
+    @Value("${appointments.archive.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private ReloadingBloomFilter archivedPatients;
+    private ReloadingBloomFilter archivedProviders;
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    private Counter archivedCounter;
+
+    @Autowired
+    void bindMetrics(MeterRegistry meterRegistry) {
+        archivedCounter = Counter.builder("appointments.archived")
+                .description("Appointments moved to the archive")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void warm() {
+        archivedPatients = new ReloadingBloomFilter(() -> archiveRepository.findArchivedPatientIds().stream()
+                .map(UUID::toString).toList(), expectedInsertions, falsePositiveRate);
+        archivedProviders = new ReloadingBloomFilter(() -> archiveRepository.findArchivedProviderIds().stream()
+                .map(UUID::toString).toList(), expectedInsertions, falsePositiveRate);
+        archivedPatients.reload(true);
+        archivedProviders.reload(true);
+    }
+
+    /** Appointments starting before this are archived once final. Whole days, so it only moves at midnight. */
+    public LocalDateTime cutoff() {
+        return LocalDate.now().minusDays(Math.max(1, retentionDays)).atStartOfDay();
+    }
+
+    /** True for appointments the archiver may move; they can no longer be changed. */
+    public boolean isArchivable(Appointment.AppointmentStatus status, LocalDateTime appointmentDateTime) {
+        return FINAL_STATUSES.contains(status) && appointmentDateTime.isBefore(cutoff());
+    }
+
+    public boolean mayHaveArchivedForPatient(UUID patientId) {
+        return archivedPatients.mightContain(patientId.toString());
+    }
+
+    public boolean mayHaveArchivedForProvider(UUID providerId) {
+        return archivedProviders.mightContain(providerId.toString());
+    }
+
+    @Scheduled(cron = "${appointments.archive.cron:0 15 3 * * *}")
+    public void archiveScheduled() {
+        archiveAged();
+    }
+
+    /** Moves everything currently archivable, up to the per-run chunk limit. Returns the number of rows moved. */
+    public int archiveAged() {
+        if (!runLock.tryLock()) {
+            return 0; // already running
+        }
+        try {
+            LocalDateTime cutoff = cutoff();
+            int moved = 0;
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                // Moved rows drop out of the query, so every chunk reads from the start again
+                List<Object[]> rows = appointmentRepository.findArchivable(cutoff, PageRequest.of(0, chunkSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                int movedInChunk = moveChunk(rows, cutoff);
+                moved += movedInChunk;
+                if (rows.size() < chunkSize || movedInChunk == 0) {
+                    break;
+                }
+            }
+            if (moved > 0) {
+                // The full listing only covers the hot table; the per-patient and per-provider views are unchanged
+                resourceVersions.bump(Scope.ALL_APPOINTMENTS, null);
+                archivedCounter.increment(moved);
+                log.info("Archived {} appointments before {}", moved, cutoff);
+            }
+            return moved;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private int moveChunk(List<Object[]> rows, LocalDateTime cutoff) {
+        Map<UUID, List<UUID>> idsByProvider = new LinkedHashMap<>();
+        Set<String> patientIds = new HashSet<>();
+        for (Object[] row : rows) {
+            patientIds.add(row[1].toString());
+            idsByProvider.computeIfAbsent((UUID) row[2], id -> new ArrayList<>()).add((UUID) row[0]);
+        }
+        Set<String> providerIds = new HashSet<>();
+        patientIds.forEach(archivedPatients::putPending);
+        try {
+            int moved = 0;
+            for (Map.Entry<UUID, List<UUID>> entry : idsByProvider.entrySet()) {
+                UUID providerId = entry.getKey();
+                List<UUID> ids = entry.getValue();
+                providerIds.add(providerId.toString());
+                archivedProviders.putPending(providerId.toString());
+                moved += bookingLocks.withProviderLock(providerId, () -> transactionTemplate.execute(tx -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    int copied = archiveRepository.copyFromHot(ids, cutoff, now);
+                    int deleted = appointmentRepository.deleteArchived(ids, cutoff);
+                    if (copied != deleted) {
+                        throw new IllegalStateException("Archive copied " + copied + " rows but removed " + deleted);
+                    }
+                    return deleted;
+                }));
+                ids.forEach(scheduleIndex::remove);
+            }
+            return moved;
+        } finally {
+            // Committed rows are listed by the next reload; ids of a failed move are at worst false positives
+            archivedPatients.settle(patientIds);
+            archivedProviders.settle(providerIds);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.think.health_first_server.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.think.health_first_server.dto.AppointmentResponse;
+import com.think.health_first_server.repo.AppointmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every appointment as newline-delimited JSON straight from a database cursor, so heap use stays flat
+ * regardless of table size.
+ */
+@Service
+public class AppointmentExportService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${appointments.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${appointments.export.flush-interval:500}")
+    private int flushInterval;
+
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        // Lines are separated by the explicit newline below; the default root separator would indent each one by a space
+        ObjectWriter writer = objectMapper.writerFor(AppointmentResponse.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        // The DTO projection never enters the persistence context, so it does not grow with the export
+        try (Stream<AppointmentResponse> rows = entityManager
+                     .createQuery(AppointmentRepository.RESPONSE_PROJECTION, AppointmentResponse.class)
+                     .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                     .setHint(HibernateHints.HINT_READ_ONLY, true)
+                     .getResultStream();
+             JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<AppointmentResponse> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++count % flushInterval == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        return count;
+    }
+}
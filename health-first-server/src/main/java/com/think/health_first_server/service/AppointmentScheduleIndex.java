@@ -0,0 +1,140 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dto.AppointmentSlot;
+import com.think.health_first_server.repo.AppointmentRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory schedule of non-cancelled appointments, kept per provider and ordered by start time,
+ * so booking conflicts can be detected without a database round trip.
+ */
+@Component
+public class AppointmentScheduleIndex {
+
+    private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private volatile Map<UUID, ProviderSchedule> schedules = new ConcurrentHashMap<>();
+    private volatile Map<UUID, Booking> bookingsById = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        // Bookings cannot be made in the past, so only slots that can still overlap a new booking are loaded
+        LocalDateTime from = LocalDate.now().minusDays(1).atStartOfDay();
+        Map<UUID, ProviderSchedule> newSchedules = new ConcurrentHashMap<>();
+        Map<UUID, Booking> newBookings = new ConcurrentHashMap<>();
+        for (AppointmentSlot slot : appointmentRepository.findActiveSlotsFrom(from)) {
+            Booking booking = Booking.of(slot.getAppointmentId(), slot.getProviderId(),
+                    slot.getAppointmentDateTime(), slot.getDurationMinutes());
+            newSchedules.computeIfAbsent(booking.providerId(), id -> new ProviderSchedule()).add(booking);
+            newBookings.put(booking.id(), booking);
+        }
+        schedules = newSchedules;
+        bookingsById = newBookings;
+    }
+
+    public void add(Appointment appointment) {
+        remove(appointment.getId());
+        if (appointment.getStatus() == Appointment.AppointmentStatus.CANCELLED) {
+            return;
+        }
+        add(Booking.of(appointment.getId(), appointment.getProvider().getId(),
+                appointment.getAppointmentDateTime(), appointment.getDurationMinutes()));
+    }
+
+    public void add(AppointmentSlot slot) {
+        remove(slot.getAppointmentId());
+        add(Booking.of(slot.getAppointmentId(), slot.getProviderId(),
+                slot.getAppointmentDateTime(), slot.getDurationMinutes()));
+    }
+
+    private void add(Booking booking) {
+        schedules.computeIfAbsent(booking.providerId(), id -> new ProviderSchedule()).add(booking);
+        bookingsById.put(booking.id(), booking);
+    }
+
+    public void remove(UUID appointmentId) {
+        Booking booking = bookingsById.remove(appointmentId);
+        if (booking == null) {
+            return;
+        }
+        ProviderSchedule schedule = schedules.get(booking.providerId());
+        if (schedule != null) {
+            schedule.remove(booking);
+        }
+    }
+
+    public int countOverlapping(UUID providerId, LocalDateTime start, Integer durationMinutes) {
+        ProviderSchedule schedule = schedules.get(providerId);
+        if (schedule == null) {
+            return 0;
+        }
+        return schedule.countOverlapping(start, start.plusMinutes(minutesOrDefault(durationMinutes)));
+    }
+
+    public boolean hasConflict(UUID providerId, LocalDateTime start, Integer durationMinutes) {
+        return countOverlapping(providerId, start, durationMinutes) > 0;
+    }
+
+    public int size() {
+        return bookingsById.size();
+    }
+
+    private static int minutesOrDefault(Integer durationMinutes) {
+        return durationMinutes != null ? durationMinutes : Appointment.DEFAULT_DURATION_MINUTES;
+    }
+
+    private record Booking(UUID id, UUID providerId, LocalDateTime start, LocalDateTime end) {
+        static Booking of(UUID id, UUID providerId, LocalDateTime start, Integer durationMinutes) {
+            return new Booking(id, providerId, start, start.plusMinutes(minutesOrDefault(durationMinutes)));
+        }
+
+        static Booking probe(LocalDateTime start) {
+            return new Booking(LOWEST_ID, null, start, start);
+        }
+    }
+
+    private static final class ProviderSchedule {
+        private static final Comparator<Booking> ORDER =
+                Comparator.comparing(Booking::start).thenComparing(Booking::id);
+
+        private final NavigableSet<Booking> bookings = new TreeSet<>(ORDER);
+        private long longestMinutes;
+
+        synchronized void add(Booking booking) {
+            bookings.add(booking);
+            longestMinutes = Math.max(longestMinutes, Duration.between(booking.start(), booking.end()).toMinutes());
+        }
+
+        synchronized void remove(Booking booking) {
+            bookings.remove(booking);
+        }
+
+        synchronized int countOverlapping(LocalDateTime start, LocalDateTime end) {
+            // Anything starting earlier than start - longestMinutes has already ended
+            int count = 0;
+            for (Booking booking : bookings.subSet(Booking.probe(start.minusMinutes(longestMinutes)), true,
+                    Booking.probe(end), false)) {
+                if (booking.end().isAfter(start)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
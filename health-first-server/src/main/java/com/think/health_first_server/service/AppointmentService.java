@@ -4,29 +4,109 @@ import com.think.health_first_server.dao.Appointment;
 import com.think.health_first_server.dao.Patient;
 import com.think.health_first_server.dao.Provider;
 import com.think.health_first_server.dto.AppointmentRequest;
+import com.think.health_first_server.dto.AppointmentResponse;
+import com.think.health_first_server.dto.AppointmentSlot;
+import com.think.health_first_server.dto.BatchBookingResult;
+import com.think.health_first_server.event.AppointmentChangedEvent;
 import com.think.health_first_server.repo.AppointmentRepository;
+import com.think.health_first_server.repo.ArchivedAppointmentRepository;
 import com.think.health_first_server.repo.PatientRepository;
 import com.think.health_first_server.repo.ProviderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class AppointmentService {
     
+    private static final String ARCHIVED_MESSAGE = "Archived appointments cannot be changed";
+    private static final String DURATION_MESSAGE =
+            "Duration must be between 1 and " + Appointment.MAX_DURATION_MINUTES + " minutes";
+    
     @Autowired
     private AppointmentRepository appointmentRepository;
     
+    @Autowired
+    private ArchivedAppointmentRepository archiveRepository;
+    
+    @Autowired
+    private AppointmentArchiveService archiveService;
+    
     @Autowired
     private PatientRepository patientRepository;
     
     @Autowired
     private ProviderRepository providerRepository;
     
+    @Autowired
+    private AppointmentScheduleIndex scheduleIndex;
+    
+    @Autowired
+    private AvailabilityExpansionService expansionService;
+    
+    @Autowired
+    private BookingLocks bookingLocks;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private NotificationService notifications;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private Counter bookedCounter;
+    private Counter conflictCounter;
+    private Counter rejectedCounter;
+    
+    @Autowired
+    void bindMetrics(MeterRegistry meterRegistry) {
+        bookedCounter = bookingCounter(meterRegistry, "success");
+        conflictCounter = bookingCounter(meterRegistry, "conflict");
+        rejectedCounter = bookingCounter(meterRegistry, "validation_failure");
+    }
+    
+    private static Counter bookingCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("appointments.bookings")
+                .description("Single booking attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
     public Appointment createAppointment(AppointmentRequest request) {
+        try {
+            Appointment saved = book(request);
+            bookedCounter.increment();
+            return saved;
+        } catch (BookingConflictException e) {
+            conflictCounter.increment();
+            throw e;
+        } catch (IllegalArgumentException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+    }
+    
+    private Appointment book(AppointmentRequest request) {
         // Validate patient exists
         Patient patient = patientRepository.findById(request.getPatientId())
                 .orElseThrow(() -> new IllegalArgumentException("Patient not found"));
@@ -35,20 +115,119 @@ public class AppointmentService {
         Provider provider = providerRepository.findById(request.getProviderId())
                 .orElseThrow(() -> new IllegalArgumentException("Provider not found"));
         
+        String invalid = invalidField(request);
+        if (invalid != null) {
+            throw new IllegalArgumentException(invalid);
+        }
+        
         // Check if appointment time is in the future
         if (request.getAppointmentDateTime().isBefore(LocalDateTime.now())) {
             throw new IllegalArgumentException("Appointment time cannot be in the past");
         }
         
-        // Check for conflicting appointments
-        long conflictingAppointments = appointmentRepository.countConflictingAppointments(
-                request.getProviderId(), request.getAppointmentDateTime());
+        // Create appointment
+        Appointment appointment = newAppointment(request, patient, provider);
+        
+        // Group slots admit up to maxAppointmentsPerSlot overlapping bookings, everything else is exclusive
+        int capacity = expansionService.capacityAt(request.getProviderId(), request.getAppointmentDateTime());
+        Appointment saved = bookingLocks.withProviderLock(request.getProviderId(), () -> {
+            checkCapacity(appointment, capacity);
+            Appointment persisted = transactionTemplate.execute(status -> {
+                checkStoredCapacity(appointment, capacity);
+                Appointment inserted = appointmentRepository.save(appointment);
+                notifications.appointmentBooked(inserted);
+                return inserted;
+            });
+            scheduleIndex.add(persisted);
+            return persisted;
+        });
+        eventPublisher.publishEvent(AppointmentChangedEvent.of(saved, null));
+        return saved;
+    }
+    
+    public List<BatchBookingResult> createAppointments(List<AppointmentRequest> requests) {
+        BatchBookingResult[] results = new BatchBookingResult[requests.size()];
+        
+        // Resolve every patient and provider in the batch with two queries
+        Map<UUID, Patient> patients = patientRepository.findAllById(requests.stream()
+                        .map(AppointmentRequest::getPatientId).filter(Objects::nonNull).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+        Map<UUID, Provider> providers = providerRepository.findAllById(requests.stream()
+                        .map(AppointmentRequest::getProviderId).filter(Objects::nonNull).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Provider::getId, Function.identity()));
         
-        if (conflictingAppointments > 0) {
-            throw new IllegalArgumentException("Provider has a conflicting appointment at this time");
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, List<Integer>> indexesByProvider = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            AppointmentRequest request = requests.get(i);
+            String invalid = invalidField(request);
+            if (!patients.containsKey(request.getPatientId())) {
+                results[i] = BatchBookingResult.failed(i, "Patient not found");
+            } else if (!providers.containsKey(request.getProviderId())) {
+                results[i] = BatchBookingResult.failed(i, "Provider not found");
+            } else if (invalid != null) {
+                results[i] = BatchBookingResult.failed(i, invalid);
+            } else if (request.getAppointmentDateTime().isBefore(now)) {
+                results[i] = BatchBookingResult.failed(i, "Appointment time cannot be in the past");
+            } else {
+                indexesByProvider.computeIfAbsent(request.getProviderId(), id -> new ArrayList<>()).add(i);
+            }
         }
         
-        // Create appointment
+        // One pass per provider: check conflicts against the schedule, the table and the batch itself, then insert in one
+        // JDBC batch
+        indexesByProvider.forEach((providerId, indexes) -> {
+            List<Appointment> accepted = new ArrayList<>();
+            List<Integer> acceptedIndexes = new ArrayList<>();
+            List<Appointment> saved;
+            try {
+                List<Appointment> candidates = indexes.stream()
+                        .map(i -> newAppointment(requests.get(i), patients.get(requests.get(i).getPatientId()),
+                                providers.get(providerId)))
+                        .toList();
+                saved = bookingLocks.withProviderLock(providerId, () -> {
+                    List<Appointment> persisted = transactionTemplate.execute(status -> {
+                        List<AppointmentSlot> stored = storedSlots(providerId,
+                                candidates.stream().map(Appointment::getAppointmentDateTime)
+                                        .min(Comparator.naturalOrder()).orElseThrow(),
+                                candidates.stream().map(AppointmentService::endOf)
+                                        .max(Comparator.naturalOrder()).orElseThrow());
+                        for (int k = 0; k < candidates.size(); k++) {
+                            int i = indexes.get(k);
+                            Appointment appointment = candidates.get(k);
+                            int capacity = expansionService.capacityAt(providerId, appointment.getAppointmentDateTime());
+                            int overlapping = Math.max(
+                                    scheduleIndex.countOverlapping(providerId, appointment.getAppointmentDateTime(),
+                                            appointment.getDurationMinutes()),
+                                    countStoredOverlapping(stored, appointment)) + countOverlapping(accepted, appointment);
+                            if (overlapping >= capacity) {
+                                results[i] = BatchBookingResult.failed(i, conflictMessage(capacity));
+                            } else {
+                                accepted.add(appointment);
+                                acceptedIndexes.add(i);
+                            }
+                        }
+                        List<Appointment> inserted = appointmentRepository.saveAll(accepted);
+                        inserted.forEach(notifications::appointmentBooked);
+                        return inserted;
+                    });
+                    persisted.forEach(scheduleIndex::add);
+                    return persisted;
+                });
+            } catch (RuntimeException e) {
+                acceptedIndexes.forEach(i -> results[i] = BatchBookingResult.failed(i, "Failed to book appointment: " + e.getMessage()));
+                return;
+            }
+            for (int k = 0; k < saved.size(); k++) {
+                int i = acceptedIndexes.get(k);
+                results[i] = BatchBookingResult.booked(i, saved.get(k).getId());
+                eventPublisher.publishEvent(AppointmentChangedEvent.of(saved.get(k), null));
+            }
+        });
+        return Arrays.asList(results);
+    }
+    
+    private Appointment newAppointment(AppointmentRequest request, Patient patient, Provider provider) {
         Appointment appointment = new Appointment();
         appointment.setPatient(patient);
         appointment.setProvider(provider);
@@ -56,32 +235,159 @@ public class AppointmentService {
         appointment.setAppointmentType(request.getAppointmentType());
         appointment.setEstimatedAmount(request.getEstimatedAmount());
         appointment.setAppointmentDateTime(request.getAppointmentDateTime());
+        if (request.getDurationMinutes() != null) {
+            appointment.setDurationMinutes(request.getDurationMinutes());
+        }
         appointment.setReasonForVisit(request.getReasonForVisit());
         appointment.setStatus(Appointment.AppointmentStatus.SCHEDULED);
-        
-        return appointmentRepository.save(appointment);
+        return appointment;
+    }
+    
+    /**
+     * The first constraint of the request that does not hold, or null. The annotations on the request are not enforced
+     * without a validator, and in a batch one bad item must fail on its own instead of failing the insert for all.
+     */
+    private static String invalidField(AppointmentRequest request) {
+        if (request.getAppointmentMode() == null) {
+            return "Appointment mode is required";
+        }
+        if (request.getAppointmentType() == null || request.getAppointmentType().isBlank()) {
+            return "Appointment type is required";
+        }
+        if (request.getAppointmentDateTime() == null) {
+            return "Appointment date and time is required";
+        }
+        if (!validDuration(request.getDurationMinutes())) {
+            return DURATION_MESSAGE;
+        }
+        return null;
+    }
+    
+    // A zero, negative or day-long duration would corrupt the schedule index
+    private static boolean validDuration(Integer durationMinutes) {
+        return durationMinutes == null
+                || (durationMinutes > 0 && durationMinutes <= Appointment.MAX_DURATION_MINUTES);
+    }
+    
+    private void checkCapacity(Appointment appointment, int capacity) {
+        int overlapping = scheduleIndex.countOverlapping(appointment.getProvider().getId(),
+                appointment.getAppointmentDateTime(), appointment.getDurationMinutes());
+        if (overlapping >= capacity) {
+            throw new BookingConflictException(conflictMessage(capacity));
+        }
+    }
+    
+    // The index only knows this instance's bookings, so the inserting transaction re-checks against the table
+    private void checkStoredCapacity(Appointment appointment, int capacity) {
+        List<AppointmentSlot> stored = storedSlots(appointment.getProvider().getId(),
+                appointment.getAppointmentDateTime(), endOf(appointment));
+        if (countStoredOverlapping(stored, appointment) >= capacity) {
+            throw new BookingConflictException(conflictMessage(capacity));
+        }
     }
     
-    public List<Appointment> getAllAppointments() {
-        return appointmentRepository.findAll();
+    private List<AppointmentSlot> storedSlots(UUID providerId, LocalDateTime from, LocalDateTime to) {
+        // Durations are capped, so nothing starting earlier than that can still be running at from
+        return appointmentRepository.findActiveSlotsBetween(providerId,
+                from.minusMinutes(Appointment.MAX_DURATION_MINUTES), to);
     }
     
-    public List<Appointment> getAppointmentsByPatient(UUID patientId) {
-        return appointmentRepository.findByPatientId(patientId);
+    private static String conflictMessage(int capacity) {
+        return capacity > 1 ? "This slot is fully booked" : "Provider has a conflicting appointment at this time";
     }
     
-    public List<Appointment> getAppointmentsByProvider(UUID providerId) {
-        return appointmentRepository.findByProviderId(providerId);
+    private static LocalDateTime endOf(Appointment appointment) {
+        return appointment.getAppointmentDateTime().plusMinutes(appointment.getDurationMinutes());
     }
     
-    public Appointment getAppointmentById(UUID appointmentId) {
-        return appointmentRepository.findById(appointmentId)
+    private static int countOverlapping(List<Appointment> appointments, Appointment candidate) {
+        return (int) appointments.stream()
+                .filter(other -> overlaps(candidate, other.getAppointmentDateTime(), other.getDurationMinutes()))
+                .count();
+    }
+    
+    private static int countStoredOverlapping(List<AppointmentSlot> slots, Appointment candidate) {
+        return (int) slots.stream()
+                .filter(slot -> overlaps(candidate, slot.getAppointmentDateTime(), slot.getDurationMinutes()))
+                .count();
+    }
+    
+    private static boolean overlaps(Appointment candidate, LocalDateTime otherStart, int otherMinutes) {
+        return otherStart.isBefore(endOf(candidate))
+                && otherStart.plusMinutes(otherMinutes).isAfter(candidate.getAppointmentDateTime());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<AppointmentResponse> getAllAppointments() {
+        return appointmentRepository.findAllResponses();
+    }
+    
+    // Both tiers, hot first: a row archived in between then shows up twice and is deduplicated, never missed
+    @Transactional(readOnly = true)
+    public List<AppointmentResponse> getAppointmentsByPatient(UUID patientId) {
+        List<AppointmentResponse> hot = appointmentRepository.findResponsesByPatientId(patientId);
+        if (!archiveService.mayHaveArchivedForPatient(patientId)) {
+            return hot;
+        }
+        return mergeTiers(hot, archiveRepository.findResponsesByPatientId(patientId));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<AppointmentResponse> getAppointmentsByProvider(UUID providerId) {
+        List<AppointmentResponse> hot = appointmentRepository.findResponsesByProviderId(providerId);
+        if (!archiveService.mayHaveArchivedForProvider(providerId)) {
+            return hot;
+        }
+        return mergeTiers(hot, archiveRepository.findResponsesByProviderId(providerId));
+    }
+    
+    @Transactional(readOnly = true)
+    public AppointmentResponse getAppointmentById(UUID appointmentId) {
+        return appointmentRepository.findResponseById(appointmentId)
+                .or(() -> archiveRepository.findResponseById(appointmentId))
                 .orElseThrow(() -> new IllegalArgumentException("Appointment not found"));
     }
     
+    private static List<AppointmentResponse> mergeTiers(List<AppointmentResponse> hot, List<AppointmentResponse> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        Set<UUID> hotIds = new HashSet<>();
+        hot.forEach(response -> hotIds.add(response.getId()));
+        List<AppointmentResponse> merged = new ArrayList<>(hot);
+        archived.stream().filter(response -> !hotIds.contains(response.getId())).forEach(merged::add);
+        merged.sort(Comparator.comparing(AppointmentResponse::getAppointmentDateTime));
+        return merged;
+    }
+    
     public Appointment updateAppointmentStatus(UUID appointmentId, Appointment.AppointmentStatus status) {
-        Appointment appointment = getAppointmentById(appointmentId);
-        appointment.setStatus(status);
-        return appointmentRepository.save(appointment);
+        Appointment appointment = appointmentRepository.findWithPatientAndProviderById(appointmentId)
+                .orElseThrow(() -> new IllegalArgumentException(archiveRepository.existsById(appointmentId)
+                        ? ARCHIVED_MESSAGE : "Appointment not found"));
+        Appointment.AppointmentStatus previousStatus = appointment.getStatus();
+        UUID providerId = appointment.getProvider().getId();
+        boolean reactivating = previousStatus == Appointment.AppointmentStatus.CANCELLED
+                && status != Appointment.AppointmentStatus.CANCELLED;
+        int capacity = reactivating ? expansionService.capacityAt(providerId, appointment.getAppointmentDateTime()) : 0;
+        Appointment saved = bookingLocks.withProviderLock(providerId, () -> {
+            // Archivable rows are read-only, as the archiver may move them at any time outside this lock
+            if (archiveService.isArchivable(previousStatus, appointment.getAppointmentDateTime())) {
+                throw new IllegalArgumentException(ARCHIVED_MESSAGE);
+            }
+            // A cancelled appointment no longer holds its place, so bringing it back must fit again
+            if (reactivating) {
+                checkCapacity(appointment, capacity);
+            }
+            appointment.setStatus(status);
+            Appointment persisted = transactionTemplate.execute(tx -> {
+                Appointment updated = appointmentRepository.save(appointment);
+                notifications.appointmentStatusChanged(updated, previousStatus);
+                return updated;
+            });
+            scheduleIndex.add(persisted);
+            return persisted;
+        });
+        eventPublisher.publishEvent(AppointmentChangedEvent.of(saved, previousStatus));
+        return saved;
     }
 } 
\ No newline at end of file
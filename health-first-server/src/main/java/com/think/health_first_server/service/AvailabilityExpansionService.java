@@ -0,0 +1,153 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dao.ProviderAvailability;
+import com.think.health_first_server.dto.AvailabilitySlot;
+import com.think.health_first_server.repo.ProviderAvailabilityRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Turns availability rules (single dates and daily/weekly/monthly recurrences) into concrete bookable slots.
+ * Slots are produced lazily one week at a time; expanded weeks are kept in an LRU cache that is invalidated
+ * per provider whenever one of its rules changes.
+ */
+@Service
+public class AvailabilityExpansionService {
+
+    private static final Set<String> UNAVAILABLE_STATUSES = Set.of("cancelled", "blocked", "maintenance");
+
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepository;
+
+    private final Map<UUID, Long> generations = new ConcurrentHashMap<>();
+    private final Map<WeekKey, List<AvailabilitySlot>> weekCache;
+
+    public AvailabilityExpansionService(@Value("${availability.expansion.cache-size:10000}") int cacheSize) {
+        this.weekCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<WeekKey, List<AvailabilitySlot>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public Stream<AvailabilitySlot> streamSlots(UUID providerId, LocalDate from, LocalDate to) {
+        LocalDate firstWeek = from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return Stream.iterate(firstWeek, week -> !week.isAfter(to), week -> week.plusWeeks(1))
+                .flatMap(week -> weekSlots(providerId, week).stream())
+                .filter(slot -> {
+                    LocalDate day = slot.getStart().toLocalDate();
+                    return !day.isBefore(from) && !day.isAfter(to);
+                });
+    }
+
+    public int capacityAt(UUID providerId, LocalDateTime time) {
+        LocalDate day = time.toLocalDate();
+        return streamSlots(providerId, day, day)
+                .filter(slot -> !slot.getStart().isAfter(time) && slot.getEnd().isAfter(time))
+                .mapToInt(slot -> Math.max(1, slot.getMaxAppointments()))
+                .max()
+                .orElse(1);
+    }
+
+    public void invalidate(UUID providerId) {
+        // Entries cached under the previous generation become unreachable and age out of the LRU
+        generations.merge(providerId, 1L, Long::sum);
+    }
+
+    private List<AvailabilitySlot> weekSlots(UUID providerId, LocalDate weekStart) {
+        WeekKey key = new WeekKey(providerId, generations.getOrDefault(providerId, 0L), weekStart);
+        synchronized (weekCache) {
+            List<AvailabilitySlot> cached = weekCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        LocalDate weekEnd = weekStart.plusDays(6);
+        List<AvailabilitySlot> slots = availabilityRepository.findRulesInWindow(providerId, weekStart, weekEnd).stream()
+                .flatMap(rule -> expand(rule, weekStart, weekEnd))
+                .sorted(Comparator.comparing(AvailabilitySlot::getStart))
+                .toList();
+        synchronized (weekCache) {
+            weekCache.put(key, slots);
+        }
+        return slots;
+    }
+
+    public Stream<AvailabilitySlot> expand(ProviderAvailability rule, LocalDate from, LocalDate to) {
+        if (rule.getStatus() != null && UNAVAILABLE_STATUSES.contains(rule.getStatus().toLowerCase())) {
+            return Stream.empty();
+        }
+        return occurrences(rule, from, to).flatMap(day -> daySlots(rule, day));
+    }
+
+    private Stream<LocalDate> occurrences(ProviderAvailability rule, LocalDate from, LocalDate to) {
+        LocalDate first = rule.getDate();
+        if (first == null) {
+            return Stream.empty();
+        }
+        ChronoUnit unit = recurrenceUnit(rule);
+        if (unit == null) {
+            return first.isBefore(from) || first.isAfter(to) ? Stream.empty() : Stream.of(first);
+        }
+        LocalDate last = rule.getRecurrenceEndDate() != null && rule.getRecurrenceEndDate().isBefore(to)
+                ? rule.getRecurrenceEndDate() : to;
+        // Jump straight to the first occurrence near the window instead of walking the series from its start
+        long skip = Math.max(0, unit.between(first, from));
+        // Each occurrence is computed from the series start so monthly rules do not drift on short months
+        return LongStream.iterate(skip, n -> n + 1)
+                .mapToObj(n -> first.plus(n, unit))
+                .takeWhile(day -> !day.isAfter(last))
+                .filter(day -> !day.isBefore(from));
+    }
+
+    private ChronoUnit recurrenceUnit(ProviderAvailability rule) {
+        if (!rule.isRecurring() || rule.getRecurrencePattern() == null) {
+            return null;
+        }
+        switch (rule.getRecurrencePattern().toLowerCase()) {
+            case "daily":
+                return ChronoUnit.DAYS;
+            case "weekly":
+                return ChronoUnit.WEEKS;
+            case "monthly":
+                return ChronoUnit.MONTHS;
+            default:
+                return null;
+        }
+    }
+
+    private Stream<AvailabilitySlot> daySlots(ProviderAvailability rule, LocalDate day) {
+        if (rule.getStartTime() == null || rule.getEndTime() == null || rule.getSlotDuration() <= 0) {
+            return Stream.empty();
+        }
+        int slotMinutes = rule.getSlotDuration();
+        int stepMinutes = slotMinutes + Math.max(0, rule.getBreakDuration());
+        LocalDateTime dayEnd = day.atTime(rule.getEndTime());
+        UUID providerId = rule.getProvider().getId();
+        return Stream.iterate(day.atTime(rule.getStartTime()),
+                        start -> !start.plusMinutes(slotMinutes).isAfter(dayEnd),
+                        start -> start.plusMinutes(stepMinutes))
+                .map(start -> new AvailabilitySlot(rule.getId(), providerId, start, start.plusMinutes(slotMinutes),
+                        rule.getAppointmentType(), rule.getLocationType(), rule.getMaxAppointmentsPerSlot()));
+    }
+
+    private record WeekKey(UUID providerId, long generation, LocalDate weekStart) {
+    }
+}
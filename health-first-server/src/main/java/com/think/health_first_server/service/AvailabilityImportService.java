@@ -0,0 +1,271 @@
+package com.think.health_first_server.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dao.ProviderAvailability;
+import com.think.health_first_server.dto.AvailabilityImportResult;
+import com.think.health_first_server.dto.ProviderAvailabilityRequest;
+import com.think.health_first_server.repo.ProviderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk import of availability rules from CSV (header row of request field names) or NDJSON. Input is read
+ * line by line and inserted in chunks, each chunk in its own transaction, so memory stays bounded by the
+ * chunk size rather than the file size. A chunk that fails is retried one row per transaction, so only the rows
+ * the database rejects are reported.
+ */
+@Service
+public class AvailabilityImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final Set<String> CSV_COLUMNS = Set.of("providerid", "date", "starttime", "endtime", "timezone",
+            "isrecurring", "recurring", "recurrencepattern", "recurrenceenddate", "slotduration", "breakduration",
+            "maxappointmentsperslot", "appointmenttype", "locationtype", "locationaddress", "roomnumber", "basefee",
+            "insuranceaccepted", "currency", "notes", "specialrequirements");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private ProviderRepository providerRepository;
+    @Autowired
+    private ProviderAvailabilityService availabilityService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${availability.import.chunk-size:500}")
+    private int chunkSize;
+
+    public AvailabilityImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public AvailabilityImportResult importCsv(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Importer importer = new Importer();
+        String header = reader.readLine();
+        if (header == null) {
+            return importer.finish();
+        }
+        String[] columns = parseCsvLine(header);
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = columns[i].trim().replace("_", "").toLowerCase();
+            if (!CSV_COLUMNS.contains(columns[i])) {
+                throw new IllegalArgumentException("Unknown CSV column: " + columns[i]);
+            }
+        }
+        String line;
+        long lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                importer.accept(lineNumber, fromCsv(columns, parseCsvLine(line)));
+            } catch (RuntimeException e) {
+                importer.fail(lineNumber, e.getMessage());
+            }
+        }
+        return importer.finish();
+    }
+
+    public AvailabilityImportResult importNdjson(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ObjectReader objectReader = objectMapper.readerFor(ProviderAvailabilityRequest.class);
+        Importer importer = new Importer();
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ProviderAvailabilityRequest request;
+            try {
+                request = objectReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                importer.fail(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            importer.accept(lineNumber, request);
+        }
+        return importer.finish();
+    }
+
+    private final class Importer {
+        private final Set<UUID> knownProviders = new HashSet<>(providerRepository.findAllIds());
+        private final Set<UUID> touchedProviders = new HashSet<>();
+        private final List<ProviderAvailabilityRequest> chunk = new ArrayList<>();
+        private final List<Long> chunkLines = new ArrayList<>();
+        private final List<AvailabilityImportResult.LineError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        void accept(long line, ProviderAvailabilityRequest request) {
+            String problem = validate(request);
+            if (problem != null) {
+                fail(line, problem);
+                return;
+            }
+            chunk.add(request);
+            chunkLines.add(line);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private String validate(ProviderAvailabilityRequest request) {
+            if (request.getProviderId() == null) {
+                return "providerId is required";
+            }
+            if (!knownProviders.contains(request.getProviderId())) {
+                return "Provider not found: " + request.getProviderId();
+            }
+            if (request.getDate() == null || request.getStartTime() == null || request.getEndTime() == null) {
+                return "date, startTime and endTime are required";
+            }
+            if (!request.getEndTime().isAfter(request.getStartTime())) {
+                return "endTime must be after startTime";
+            }
+            return null;
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new AvailabilityImportResult.LineError(line, message));
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                insert(chunk);
+                imported += chunk.size();
+                chunk.forEach(request -> touchedProviders.add(request.getProviderId()));
+            } catch (RuntimeException e) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    ProviderAvailabilityRequest request = chunk.get(i);
+                    try {
+                        insert(List.of(request));
+                        imported++;
+                        touchedProviders.add(request.getProviderId());
+                    } catch (RuntimeException rowFailure) {
+                        fail(chunkLines.get(i), "Insert failed: " + rowFailure.getMessage());
+                    }
+                }
+            }
+            chunk.clear();
+            chunkLines.clear();
+        }
+
+        private void insert(List<ProviderAvailabilityRequest> requests) {
+            // Entities are built inside the transaction, since a rolled back persist leaves its entity unusable
+            transactionTemplate.executeWithoutResult(status -> {
+                for (ProviderAvailabilityRequest request : requests) {
+                    ProviderAvailability availability = new ProviderAvailability();
+                    AvailabilityMapper.apply(request, availability);
+                    // Known ids only, so a reference is enough and no provider row is read
+                    availability.setProvider(entityManager.getReference(Provider.class, request.getProviderId()));
+                    entityManager.persist(availability);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+
+        AvailabilityImportResult finish() {
+            flush();
+            touchedProviders.forEach(availabilityService::availabilityChanged);
+            return new AvailabilityImportResult(imported, failed, errors);
+        }
+    }
+
+    private static ProviderAvailabilityRequest fromCsv(String[] columns, String[] values) {
+        ProviderAvailabilityRequest request = new ProviderAvailabilityRequest();
+        for (int i = 0; i < columns.length && i < values.length; i++) {
+            String value = values[i].trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (columns[i]) {
+                case "providerid" -> request.setProviderId(UUID.fromString(value));
+                case "date" -> request.setDate(LocalDate.parse(value));
+                case "starttime" -> request.setStartTime(LocalTime.parse(value));
+                case "endtime" -> request.setEndTime(LocalTime.parse(value));
+                case "timezone" -> request.setTimezone(value);
+                case "isrecurring", "recurring" -> request.setRecurring(Boolean.parseBoolean(value));
+                case "recurrencepattern" -> request.setRecurrencePattern(value);
+                case "recurrenceenddate" -> request.setRecurrenceEndDate(LocalDate.parse(value));
+                case "slotduration" -> request.setSlotDuration(Integer.parseInt(value));
+                case "breakduration" -> request.setBreakDuration(Integer.parseInt(value));
+                case "maxappointmentsperslot" -> request.setMaxAppointmentsPerSlot(Integer.parseInt(value));
+                case "appointmenttype" -> request.setAppointmentType(value);
+                case "locationtype" -> request.setLocationType(value);
+                case "locationaddress" -> request.setLocationAddress(value);
+                case "roomnumber" -> request.setRoomNumber(value);
+                case "basefee" -> request.setBaseFee(Double.parseDouble(value));
+                case "insuranceaccepted" -> request.setInsuranceAccepted(Boolean.parseBoolean(value));
+                case "currency" -> request.setCurrency(value);
+                case "notes" -> request.setNotes(value);
+                case "specialrequirements" -> request.setSpecialRequirements(value);
+                default -> {
+                }
+            }
+        }
+        return request;
+    }
+
+    static String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,47 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dao.ProviderAvailability;
+import com.think.health_first_server.dto.ProviderAvailabilityRequest;
+
+import java.time.LocalDateTime;
+
+/**
+ * Explicit request-to-entity mapping for availability rules, used instead of reflective bean copying on the
+ * create, update and bulk import paths. Values the request leaves unset keep the entity defaults.
+ */
+final class AvailabilityMapper {
+
+    private AvailabilityMapper() {
+    }
+
+    static void apply(ProviderAvailabilityRequest request, ProviderAvailability availability) {
+        availability.setDate(request.getDate());
+        availability.setStartTime(request.getStartTime());
+        availability.setEndTime(request.getEndTime());
+        availability.setTimezone(request.getTimezone());
+        availability.setRecurring(request.isRecurring());
+        availability.setRecurrencePattern(request.getRecurrencePattern());
+        availability.setRecurrenceEndDate(request.getRecurrenceEndDate());
+        if (request.getSlotDuration() > 0) {
+            availability.setSlotDuration(request.getSlotDuration());
+        }
+        availability.setBreakDuration(Math.max(0, request.getBreakDuration()));
+        if (request.getMaxAppointmentsPerSlot() != null) {
+            availability.setMaxAppointmentsPerSlot(request.getMaxAppointmentsPerSlot());
+        }
+        if (request.getAppointmentType() != null) {
+            availability.setAppointmentType(request.getAppointmentType());
+        }
+        availability.setLocationType(request.getLocationType());
+        availability.setLocationAddress(request.getLocationAddress());
+        availability.setRoomNumber(request.getRoomNumber());
+        availability.setBaseFee(request.getBaseFee());
+        availability.setInsuranceAccepted(request.getInsuranceAccepted());
+        if (request.getCurrency() != null) {
+            availability.setCurrency(request.getCurrency());
+        }
+        availability.setNotes(request.getNotes());
+        availability.setSpecialRequirements(request.getSpecialRequirements());
+        availability.setUpdatedAt(LocalDateTime.now());
+    }
+}
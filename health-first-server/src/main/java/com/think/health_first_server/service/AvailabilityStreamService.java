@@ -0,0 +1,373 @@
+package com.think.health_first_server.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.think.health_first_server.dto.OpenSlot;
+import com.think.health_first_server.dto.SlotSearchRequest;
+import com.think.health_first_server.event.OpenSlotsChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes open-slot deltas to Server-Sent Events subscribers, either for one provider or for a search filter
+ * (the attribute filters of the open-slot search; the time window is left to the client).
+ * <p>
+ * Connections are async servlet requests, so an idle subscriber holds no thread. Committed changes are queued and
+ * a single fan-out thread drains them, coalesces repeated updates of the same slot and serializes each payload once
+ * per provider, then once per distinct filter rather than per subscriber. If the queue overflows, subscribers get a
+ * reset and refetch instead of silently missing a delta.
+ * <p>
+ * Frames are written by a small sender pool from a bounded buffer per subscriber, so a client that stops reading
+ * holds up at most one sender and never the fan-out or the other subscribers. A subscriber whose buffer fills up is
+ * disconnected; EventSource reconnects on its own and the client refetches, just as after a reset.
+ * <p>
+ * Clients should subscribe first and then fetch the current slots, so nothing committed in between is missed.
+ */
+@Service
+public class AvailabilityStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityStreamService.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${availability.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+    @Value("${availability.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+    @Value("${availability.stream.heartbeat-ms:15000}")
+    private long heartbeatMillis;
+    @Value("${availability.stream.subscriber-buffer:256}")
+    private int subscriberBuffer;
+    @Value("${availability.stream.sender-threads:4}")
+    private int senderThreads;
+
+    private final Map<UUID, Set<Subscriber>> byProvider = new ConcurrentHashMap<>();
+    private final Map<StreamFilter, Set<Subscriber>> byFilter = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final BlockingQueue<OpenSlotsChangedEvent> pending;
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private final Thread fanOutThread = new Thread(this::fanOutLoop, "availability-stream");
+    private ExecutorService senders;
+
+    private Counter droppedCounter;
+    private Counter slowCounter;
+
+    public AvailabilityStreamService(@Value("${availability.stream.queue-capacity:10000}") int queueCapacity) {
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        fanOutThread.setDaemon(true);
+    }
+
+    @Autowired
+    void bindMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("availability.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Connected availability stream subscribers")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("availability.stream.overflows")
+                .description("Deltas dropped because the fan-out queue was full; subscribers were reset instead")
+                .register(meterRegistry);
+        slowCounter = Counter.builder("availability.stream.slow-subscribers")
+                .description("Subscribers disconnected because they fell a whole buffer behind")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "availability-stream-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        fanOutThread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        fanOutThread.interrupt();
+        senders.shutdownNow();
+        byProvider.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        byFilter.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    public SseEmitter subscribeProvider(UUID providerId) {
+        return subscribe(byProvider, providerId);
+    }
+
+    public SseEmitter subscribeSearch(SlotSearchRequest request) {
+        return subscribe(byFilter, new StreamFilter(request));
+    }
+
+    private <K> SseEmitter subscribe(Map<K, Set<Subscriber>> index, K key) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new StreamCapacityExceededException();
+        }
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, subscriberBuffer);
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        Runnable remove = () -> {
+            if (subscriber.closed.compareAndSet(false, true)) {
+                subscriberCount.decrementAndGet();
+                index.computeIfPresent(key, (k, subscribers) -> {
+                    subscribers.remove(subscriber);
+                    return subscribers.isEmpty() ? null : subscribers;
+                });
+            }
+        };
+        subscriber.remove = remove;
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        // Commits the response headers right away, so the client knows it is subscribed
+        subscriber.enqueue(Frame.comment("subscribed"));
+        return emitter;
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @EventListener
+    public void onOpenSlotsChanged(OpenSlotsChangedEvent event) {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        // Runs on the committing thread: only hand the event over, never block on subscribers here
+        if (!pending.offer(event)) {
+            overflowed.set(true);
+            droppedCounter.increment();
+        }
+    }
+
+    private void fanOutLoop() {
+        List<OpenSlotsChangedEvent> batch = new ArrayList<>();
+        long nextHeartbeat = System.currentTimeMillis() + heartbeatMillis;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                OpenSlotsChangedEvent first = pending.poll(
+                        Math.max(1, nextHeartbeat - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    pending.drainTo(batch);
+                    fanOut(batch);
+                    batch.clear();
+                }
+                if (overflowed.getAndSet(false)) {
+                    broadcast(new Frame("reset", "{\"reason\":\"overflow\"}", null));
+                }
+                if (System.currentTimeMillis() >= nextHeartbeat) {
+                    // Keeps proxies from closing idle connections and finds clients that went away
+                    broadcast(Frame.comment("heartbeat"));
+                    nextHeartbeat = System.currentTimeMillis() + heartbeatMillis;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Availability fan-out failed", e);
+                batch.clear();
+            }
+        }
+    }
+
+    private void fanOut(List<OpenSlotsChangedEvent> batch) {
+        // Coalesce per provider; a later update of the same slot replaces the earlier one
+        Map<UUID, ProviderDelta> deltas = new LinkedHashMap<>();
+        for (OpenSlotsChangedEvent event : batch) {
+            ProviderDelta delta = deltas.computeIfAbsent(event.getProviderId(), id -> new ProviderDelta(event));
+            if (event.isReset()) {
+                delta.reset = true;
+                delta.slots.clear();
+            } else if (!delta.reset) {
+                for (OpenSlot slot : event.getSlots()) {
+                    delta.slots.put(slot.getAvailabilityId() + "@" + slot.getStart(), slot);
+                }
+            }
+        }
+        for (ProviderDelta delta : deltas.values()) {
+            Set<Subscriber> providerSubscribers = byProvider.get(delta.event.getProviderId());
+            if (providerSubscribers != null) {
+                sendAll(providerSubscribers, delta.payload(List.copyOf(delta.slots.values())));
+            }
+            byFilter.forEach((filter, subscribers) -> {
+                if (!filter.matches(delta.event)) {
+                    return;
+                }
+                if (delta.reset) {
+                    sendAll(subscribers, delta.payload(List.of()));
+                    return;
+                }
+                List<OpenSlot> matching = delta.slots.values().stream().filter(filter::matches).toList();
+                if (!matching.isEmpty()) {
+                    sendAll(subscribers, delta.payload(matching));
+                }
+            });
+        }
+    }
+
+    private void broadcast(Frame frame) {
+        byProvider.values().forEach(subscribers -> sendAll(subscribers, frame));
+        byFilter.values().forEach(subscribers -> sendAll(subscribers, frame));
+    }
+
+    private void sendAll(Set<Subscriber> subscribers, Frame frame) {
+        subscribers.forEach(subscriber -> subscriber.enqueue(frame));
+    }
+
+    private final class ProviderDelta {
+        final OpenSlotsChangedEvent event;
+        final Map<String, OpenSlot> slots = new LinkedHashMap<>();
+        boolean reset;
+
+        ProviderDelta(OpenSlotsChangedEvent event) {
+            this.event = event;
+        }
+
+        // Serialized here once; the String is written as is to every subscriber that gets it
+        Frame payload(List<OpenSlot> slots) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("provider_id", event.getProviderId());
+            body.put("slots", slots);
+            try {
+                return new Frame(reset ? "reset" : "slots", objectMapper.writeValueAsString(body), null);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // Event builders are single use, so frames keep the serialized data and build one per send
+    private record Frame(String name, String json, String comment) {
+        static Frame comment(String comment) {
+            return new Frame(null, null, comment);
+        }
+
+        SseEmitter.SseEventBuilder toEvent() {
+            return comment != null ? SseEmitter.event().comment(comment)
+                    : SseEmitter.event().name(name).data(json, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<Frame> frames;
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile boolean tooSlow;
+        volatile Runnable remove = () -> { };
+
+        Subscriber(SseEmitter emitter, int buffer) {
+            this.emitter = emitter;
+            this.frames = new ArrayBlockingQueue<>(buffer);
+        }
+
+        // Called by the fan-out thread, which must never wait for the client
+        void enqueue(Frame frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (!frames.offer(frame)) {
+                tooSlow = true;
+                slowCounter.increment();
+                remove.run();
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    sending.set(false); // shutting down
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Frame frame;
+                while (!closed.get() && (frame = frames.poll()) != null) {
+                    try {
+                        emitter.send(frame.toEvent());
+                    } catch (IOException | IllegalStateException e) {
+                        // Disconnected or already completed
+                        remove.run();
+                    }
+                }
+            } finally {
+                sending.set(false);
+            }
+            if (closed.get()) {
+                frames.clear();
+                if (tooSlow) {
+                    // Completed from here, since the emitter is locked while a send to the stalled client is blocked
+                    tooSlow = false;
+                    emitter.complete();
+                }
+            } else if (!frames.isEmpty()) {
+                schedule(); // enqueued after the last poll
+            }
+        }
+    }
+
+    private record StreamFilter(String specialization, String city, String state, String zip,
+                                String locationType, String appointmentType) {
+        StreamFilter(SlotSearchRequest request) {
+            this(normalize(request.getSpecialization()), normalize(request.getCity()), normalize(request.getState()),
+                    normalize(request.getZip()), normalize(request.getLocationType()),
+                    normalize(request.getAppointmentType()));
+        }
+
+        // A reset for a provider that no longer exists carries no attributes, so it reaches every filter
+        boolean matches(OpenSlotsChangedEvent event) {
+            if (event.isReset() && event.getSpecialization() == null && event.getCity() == null) {
+                return true;
+            }
+            return accepts(specialization, event.getSpecialization()) && accepts(city, event.getCity())
+                    && accepts(state, event.getState()) && accepts(zip, event.getZip());
+        }
+
+        boolean matches(OpenSlot slot) {
+            return accepts(locationType, slot.getLocationType()) && accepts(appointmentType, slot.getAppointmentType())
+                    && !slot.getEnd().isBefore(LocalDateTime.now());
+        }
+
+        private static boolean accepts(String wanted, String actual) {
+            return wanted == null || wanted.equals(normalize(actual));
+        }
+
+        private static String normalize(String value) {
+            return value == null || value.isBlank() ? null : value.trim().toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.think.health_first_server.service;
+
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
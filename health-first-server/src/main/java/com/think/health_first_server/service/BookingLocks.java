@@ -0,0 +1,45 @@
+package com.think.health_first_server.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped per-provider locks that make the capacity check and the insert of a booking atomic. Bookings for
+ * providers on different stripes never wait on each other.
+ */
+@Component
+public class BookingLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public BookingLocks(@Value("${booking.lock-stripes:1024}") int stripeCount) {
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withProviderLock(UUID providerId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(providerId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(UUID providerId) {
+        int hash = providerId.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,42 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dao.OutboxMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/** Default sender for local runs and tests: appends each message to a mailbox file per recipient. */
+@Component
+@ConditionalOnProperty(name = "notifications.sender", havingValue = "file", matchIfMissing = true)
+public class FileNotificationSender implements NotificationSender {
+
+    private final Path directory;
+
+    public FileNotificationSender(@Value("${notifications.file.directory:target/notifications}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    @Override
+    public void send(OutboxMessage message) throws IOException {
+        Files.createDirectories(directory);
+        String entry = "Date: " + LocalDateTime.now() + "\n"
+                + "To: " + message.getRecipient() + "\n"
+                + "Subject: " + message.getSubject() + "\n"
+                + "X-Notification-Type: " + message.getType() + "\n"
+                + "X-Outbox-Id: " + message.getId() + "\n\n"
+                + message.getBody() + "\n\n";
+        Files.writeString(mailbox(message.getRecipient()), entry, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    public Path mailbox(String recipient) {
+        return directory.resolve(recipient.replaceAll("[^A-Za-z0-9@._-]", "_") + ".mbox");
+    }
+}
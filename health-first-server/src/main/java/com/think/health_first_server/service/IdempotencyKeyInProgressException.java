@@ -0,0 +1,7 @@
+package com.think.health_first_server.service;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException() {
+        super("A request with this Idempotency-Key is still being processed, please retry shortly");
+    }
+}
@@ -0,0 +1,290 @@
+package com.think.health_first_server.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.think.health_first_server.dao.IdempotencyRecord;
+import com.think.health_first_server.repo.IdempotencyRecordRepository;
+import com.think.health_first_server.repo.IdempotencyRecordRepository.Snapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for POSTs that must not run twice, such as booking. The first request with a key runs and
+ * its response is kept; retries with the same key and body get that response back without running anything, and
+ * duplicates arriving while the first is still running wait for it instead of running alongside.
+ * <p>
+ * Keys are scoped to the authenticated subject, or to the client address for anonymous callers, and checked against
+ * a hash of the request body. The database row is
+ * what makes this hold across instances: it is claimed before the request runs and completed with the response.
+ * In front of it a bounded in-memory cache holds the responses of recent keys and the in-flight requests of this
+ * instance, so local retries and local duplicates never touch the table. Server errors are not kept, so the client
+ * can retry them, and a claim held past the in-flight timeout (its instance died) can be taken over.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_MILLIS = 50;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+    @Value("${idempotency.cache-size:10000}")
+    private int cacheSize;
+    @Value("${idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMillis;
+    @Value("${idempotency.in-flight-timeout-ms:60000}")
+    private long inFlightTimeoutMillis;
+
+    // Least recently used keys make room when full; an evicted key is still answered from the table
+    private Cache<String, Entry> entries;
+
+    private Counter executedCounter;
+    private Counter replayedCounter;
+
+    @PostConstruct
+    void buildCache() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .build();
+    }
+
+    @Autowired
+    void bindMetrics(MeterRegistry meterRegistry) {
+        executedCounter = requestCounter(meterRegistry, "executed");
+        replayedCounter = requestCounter(meterRegistry, "replayed");
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("idempotency.requests")
+                .description("Requests carrying an Idempotency-Key by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /** A response as it was first sent; {@code replayed} is true for every copy handed out after that. */
+    public record StoredResponse(int status, String body, boolean replayed) {
+
+        StoredResponse replay() {
+            return replayed ? this : new StoredResponse(status, body, true);
+        }
+    }
+
+    /**
+     * Runs the action once per key. Throws {@link IdempotencyKeyReusedException} when the key was used with another
+     * body and {@link IdempotencyKeyInProgressException} when the first request is still running after the wait.
+     */
+    public StoredResponse execute(String idempotencyKey, Object request, Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = client() + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        Entry mine = new Entry(fingerprint);
+        Entry existing = entries.asMap().putIfAbsent(id, mine);
+        if (existing == null) {
+            return run(id, mine, action);
+        }
+        if (!existing.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException();
+        }
+        replayedCounter.increment();
+        return await(existing.result).replay();
+    }
+
+    private StoredResponse run(String id, Entry mine, Supplier<ResponseEntity<?>> action) {
+        boolean claimed = false;
+        try {
+            StoredResponse response = claim(id, mine.fingerprint);
+            if (response != null) {
+                replayedCounter.increment();
+            } else {
+                claimed = true;
+                executedCounter.increment();
+                response = capture(action.get());
+                if (response.status() >= 500) {
+                    // Not kept: the retry should run again
+                    entries.asMap().remove(id, mine);
+                    release(id);
+                } else {
+                    store(id, response);
+                }
+            }
+            mine.result.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            entries.asMap().remove(id, mine);
+            mine.result.completeExceptionally(e);
+            if (claimed) {
+                release(id);
+            }
+            throw e;
+        }
+    }
+
+    /** Returns the stored response when the key was already completed, or null once this caller holds the claim. */
+    private StoredResponse claim(String id, String fingerprint) {
+        long deadline = System.currentTimeMillis() + waitTimeoutMillis;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            Optional<Snapshot> found = repository.findSnapshot(id);
+            if (found.isEmpty()) {
+                try {
+                    repository.insertInProgress(id, fingerprint, now, now.plusHours(ttlHours));
+                    return null;
+                } catch (DataIntegrityViolationException e) {
+                    continue; // claimed by someone else in between
+                }
+            }
+            Snapshot existing = found.get();
+            if (existing.getExpiresAt().isBefore(now)) {
+                repository.deleteIfExpired(id, now);
+                continue;
+            }
+            if (!existing.getRequestHash().equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException();
+            }
+            if (existing.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                return new StoredResponse(existing.getResponseStatus(), existing.getResponseBody(), true);
+            }
+            if (existing.getLockedAt().isBefore(now.minus(Duration.ofMillis(inFlightTimeoutMillis)))
+                    && repository.takeOver(id, existing.getLockedAt(), now) == 1) {
+                log.warn("Took over Idempotency-Key claim {} held since {}", id, existing.getLockedAt());
+                return null;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IdempotencyKeyInProgressException();
+            }
+            sleep(POLL_MILLIS);
+        }
+    }
+
+    private void store(String id, StoredResponse response) {
+        try {
+            repository.complete(id, response.status(), response.body(), LocalDateTime.now().plusHours(ttlHours));
+        } catch (DataAccessException e) {
+            // The request already ran; retries here still get the response from memory, elsewhere after the timeout
+            log.warn("Could not store the response for Idempotency-Key {}", id, e);
+        }
+    }
+
+    private void release(String id) {
+        try {
+            repository.release(id);
+        } catch (DataAccessException e) {
+            log.warn("Could not release Idempotency-Key {}", id, e);
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> result) {
+        try {
+            return result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Idempotent request failed", e.getCause());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.sweep-ms:300000}")
+    public void purgeExpired() {
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Purged {} expired Idempotency-Keys", deleted);
+        }
+    }
+
+    private StoredResponse capture(ResponseEntity<?> response) {
+        try {
+            return new StoredResponse(response.getStatusCode().value(), objectMapper.writeValueAsString(response.getBody()),
+                    false);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the response", e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash the request", e);
+        }
+    }
+
+    private static String client() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            // Told apart by address like the rate limiter does, so one caller cannot replay another's key
+            return "anonymous:" + remoteAddress();
+        }
+        return authentication.getName();
+    }
+
+    private static String remoteAddress() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest().getRemoteAddr()
+                : "unknown";
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException();
+        }
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
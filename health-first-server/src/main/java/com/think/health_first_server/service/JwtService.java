@@ -1,23 +1,66 @@
 package com.think.health_first_server.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.think.health_first_server.dao.Patient;
 import com.think.health_first_server.dao.Provider;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
-    private final String secret = "supersecretkey";
-    private final long jwtExpiration = 3600000; // 1 hour
-    private final long patientTokenExpiry = 1800000;  // 30 mins
+    private final SecretKey signingKey;
+    private final JwtParser parser; // immutable and thread-safe, built once
+    private final long jwtExpiration;
+    private final long patientTokenExpiry;
+
+    // Global registry so the service also reports when built outside Spring; Boot adds its registries to it
+    private final Timer generateTimer = jwtTimer("generate", "none");
+    private final Timer validateHitTimer = jwtTimer("validate", "hit");
+    private final Timer validateMissTimer = jwtTimer("validate", "miss");
+
+    // Verified token -> what the filter needs of it, so repeat requests with the same token skip HMAC verification
+    // and JSON parsing. Claims are mutable, so callers get an immutable copy and can never alter a cached entry.
+    // Least recently used tokens make room when full; each entry expires with its token.
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtService(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.expiration:3600000}") long jwtExpiration,
+                      @Value("${jwt.patient-expiration:1800000}") long patientTokenExpiry,
+                      @Value("${jwt.claims-cache-size:10000}") int claimsCacheSize) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.jwtExpiration = jwtExpiration;
+        this.patientTokenExpiry = patientTokenExpiry;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+    }
+
+    private static Timer jwtTimer(String operation, String cache) {
+        return Timer.builder("jwt.operations")
+                .description("JWT signing and verification time")
+                .tags("operation", operation, "cache", cache)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
 
     public String generateToken(Provider provider) {
-        return Jwts.builder()
+        return generateTimer.record(() -> Jwts.builder()
                 .setSubject(provider.getId().toString())
                 .claim("email", provider.getEmail())
                 .claim("role", "provider")
@@ -25,26 +68,70 @@ public class JwtService {
                 .claim("verification_status", provider.getVerificationStatus().name())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS256)
-                .compact();
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact());
     }
 
     public String generateToken(Patient patient) {
-        return Jwts.builder()
+        return generateTimer.record(() -> Jwts.builder()
                 .setSubject(patient.getId().toString())
                 .claim("email", patient.getEmail())
                 .claim("role", "patient")
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + patientTokenExpiry))
-                .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS256)
-                .compact();
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact());
     }
 
     public Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secret.getBytes())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Verifies the token like {@link #extractClaims(String)} and returns its subject, role and expiry, answering from
+     * the verified-token cache when possible. Cached entries are never returned past the token's own expiry.
+     */
+    public VerifiedToken validateToken(String token) {
+        long started = System.nanoTime();
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null && cached.expiresAt() > now) {
+            validateHitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        Claims claims;
+        try {
+            claims = extractClaims(token);
+        } finally {
+            validateMissTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        Date expiration = claims.getExpiration();
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.get("role", String.class),
+                expiration == null ? Long.MAX_VALUE : expiration.getTime());
+        if (expiration != null) {
+            verifiedTokens.put(token, verified);
+        }
+        return verified;
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, verified.expiresAt() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /** The parts of a verified token that authentication uses; {@code expiresAt} is epoch millis. */
+    public record VerifiedToken(String subject, String role, long expiresAt) {
     }
 }
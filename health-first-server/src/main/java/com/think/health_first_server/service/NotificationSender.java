@@ -0,0 +1,12 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dao.OutboxMessage;
+
+/**
+ * Delivers one outbox message. Implementations may block on I/O; they only ever run on the dispatcher's threads,
+ * and messages for the same recipient are handed over one at a time in order. Throwing schedules a retry.
+ */
+public interface NotificationSender {
+
+    void send(OutboxMessage message) throws Exception;
+}
@@ -0,0 +1,78 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.OutboxMessage;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.repo.OutboxMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes notifications to the outbox. Every method must run inside the transaction that makes the change it
+ * announces, so a message exists exactly when the change was committed; delivery happens later in
+ * {@link OutboxDispatcher}.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class NotificationService {
+
+    private static final DateTimeFormatter WHEN = DateTimeFormatter.ofPattern("EEEE d MMMM yyyy 'at' HH:mm");
+
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+
+    public void patientRegistered(Patient patient) {
+        enqueue(patient.getEmail(), "PATIENT_VERIFICATION", "Verify your Health First account",
+                "Hi " + patient.getFirstName() + ",\n\n"
+                        + "Welcome to Health First. Please verify your email address to activate your patient account.");
+    }
+
+    public void providerRegistered(Provider provider) {
+        enqueue(provider.getEmail(), "PROVIDER_VERIFICATION", "Verify your Health First provider account",
+                "Hi Dr. " + provider.getLastName() + ",\n\n"
+                        + "Thank you for registering with Health First. Please verify your email address; "
+                        + "your license " + provider.getLicenseNumber() + " will be reviewed once it is confirmed.");
+    }
+
+    public void appointmentBooked(Appointment appointment) {
+        enqueue(appointment.getPatient().getEmail(), "APPOINTMENT_BOOKED", "Your appointment is booked",
+                "Hi " + appointment.getPatient().getFirstName() + ",\n\n"
+                        + "Your " + appointment.getAppointmentType() + " with " + providerName(appointment)
+                        + " is booked for " + WHEN.format(appointment.getAppointmentDateTime())
+                        + " (" + appointment.getDurationMinutes() + " minutes, "
+                        + appointment.getAppointmentMode() + ").");
+    }
+
+    public void appointmentStatusChanged(Appointment appointment, Appointment.AppointmentStatus previousStatus) {
+        if (appointment.getStatus() == previousStatus) {
+            return;
+        }
+        enqueue(appointment.getPatient().getEmail(), "APPOINTMENT_" + appointment.getStatus(),
+                "Your appointment is now " + appointment.getStatus().name().toLowerCase().replace('_', ' '),
+                "Hi " + appointment.getPatient().getFirstName() + ",\n\n"
+                        + "Your " + appointment.getAppointmentType() + " with " + providerName(appointment)
+                        + " on " + WHEN.format(appointment.getAppointmentDateTime())
+                        + " changed from " + previousStatus + " to " + appointment.getStatus() + ".");
+    }
+
+    private void enqueue(String recipient, String type, String subject, String body) {
+        if (recipient == null) {
+            return;
+        }
+        OutboxMessage message = new OutboxMessage();
+        message.setRecipient(recipient);
+        message.setType(type);
+        message.setSubject(subject);
+        message.setBody(body);
+        outboxRepository.save(message);
+    }
+
+    private static String providerName(Appointment appointment) {
+        return "Dr. " + appointment.getProvider().getFirstName() + " " + appointment.getProvider().getLastName();
+    }
+}
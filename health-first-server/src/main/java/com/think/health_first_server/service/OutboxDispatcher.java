@@ -0,0 +1,221 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dao.OutboxMessage;
+import com.think.health_first_server.repo.OutboxMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Drains the outbox in batches of the oldest due messages. Each batch is grouped by recipient; recipients are
+ * delivered in parallel on a small fixed pool, the messages of one recipient strictly one after the other in id
+ * order. The next batch is only read once the current one is finished, so a slow sender backs up in the table
+ * rather than in memory. A failed message is retried with exponential backoff and holds back everything newer for
+ * its recipient until it is sent or given up on.
+ * <p>
+ * Assumes a single dispatching instance: concurrent dispatchers would need row claiming to keep the ordering.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+    @Autowired
+    private NotificationSender sender;
+
+    @Value("${notifications.dispatch.batch-size:100}")
+    private int batchSize;
+    @Value("${notifications.dispatch.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+    @Value("${notifications.dispatch.max-attempts:8}")
+    private int maxAttempts;
+    @Value("${notifications.dispatch.retry-base-ms:1000}")
+    private long retryBaseMillis;
+    @Value("${notifications.dispatch.retry-max-ms:3600000}")
+    private long retryMaxMillis;
+    @Value("${notifications.retention-days:7}")
+    private int retentionDays;
+
+    private final ExecutorService deliveryPool;
+    // Not synchronized: draining blocks on the sender and must not pin a virtual thread's carrier
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    private Counter sentCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+
+    public OutboxDispatcher(@Value("${notifications.dispatch.threads:4}") int threads) {
+        this.deliveryPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-delivery");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Autowired
+    void bindMetrics(MeterRegistry meterRegistry) {
+        sentCounter = dispatchCounter(meterRegistry, "sent");
+        retriedCounter = dispatchCounter(meterRegistry, "retry");
+        failedCounter = dispatchCounter(meterRegistry, "failed");
+        new ExecutorServiceMetrics(deliveryPool, "outbox.delivery", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    private static Counter dispatchCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notifications.dispatched")
+                .description("Outbox delivery attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.dispatch.poll-interval-ms:1000}",
+            initialDelayString = "${notifications.dispatch.poll-interval-ms:1000}")
+    public void dispatchScheduled() {
+        drain();
+    }
+
+    /** Delivers everything currently due, up to the per-run batch limit. Returns the number of messages sent. */
+    public int drain() {
+        if (!drainLock.tryLock()) {
+            return 0; // already draining
+        }
+        try {
+            int sent = 0;
+            long after = 0;
+            // Recipients with a failure in this run stay blocked for the rest of it, even with a zero backoff
+            Set<String> blocked = new HashSet<>();
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                LocalDateTime now = LocalDateTime.now();
+                List<OutboxMessage> due = outboxRepository.findDue(now, after, PageRequest.of(0, batchSize));
+                if (due.isEmpty()) {
+                    break;
+                }
+                after = due.get(due.size() - 1).getId();
+                sent += deliver(due, now, blocked);
+                if (due.size() < batchSize) {
+                    break;
+                }
+            }
+            return sent;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private int deliver(List<OutboxMessage> due, LocalDateTime now, Set<String> blocked) {
+        Map<String, List<OutboxMessage>> byRecipient = new LinkedHashMap<>();
+        for (OutboxMessage message : due) {
+            byRecipient.computeIfAbsent(message.getRecipient(), r -> new ArrayList<>()).add(message);
+        }
+        Map<String, Long> waiting = new HashMap<>();
+        for (Object[] row : outboxRepository.findOldestWaiting(now, byRecipient.keySet())) {
+            waiting.put((String) row[0], (Long) row[1]);
+        }
+
+        List<Future<Result>> futures = new ArrayList<>();
+        byRecipient.forEach((recipient, messages) -> {
+            if (!blocked.contains(recipient)) {
+                long limit = waiting.getOrDefault(recipient, Long.MAX_VALUE);
+                futures.add(deliveryPool.submit(() -> deliverInOrder(messages, limit)));
+            }
+        });
+
+        List<Long> sentIds = new ArrayList<>();
+        for (Future<Result> future : futures) {
+            Result result;
+            try {
+                result = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.error("Outbox delivery task failed", e.getCause());
+                continue;
+            }
+            sentIds.addAll(result.sentIds());
+            if (result.failed() != null) {
+                blocked.add(result.failed().getRecipient());
+                recordFailure(result.failed(), result.error());
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markSent(sentIds, LocalDateTime.now());
+            sentCounter.increment(sentIds.size());
+        }
+        return sentIds.size();
+    }
+
+    // Stops at the first failure, or at an older message of the same recipient that is still backing off
+    private Result deliverInOrder(List<OutboxMessage> messages, long limit) {
+        List<Long> sentIds = new ArrayList<>();
+        for (OutboxMessage message : messages) {
+            if (message.getId() > limit) {
+                break;
+            }
+            try {
+                sender.send(message);
+                sentIds.add(message.getId());
+            } catch (Exception e) {
+                return new Result(sentIds, message, e);
+            }
+        }
+        return new Result(sentIds, null, null);
+    }
+
+    private void recordFailure(OutboxMessage message, Exception error) {
+        int attempts = message.getAttempts() + 1;
+        String reason = String.valueOf(error.getMessage());
+        reason = reason.length() > 255 ? reason.substring(0, 255) : reason;
+        if (attempts >= maxAttempts) {
+            log.error("Giving up on outbox message {} to {} after {} attempts: {}", message.getId(),
+                    message.getRecipient(), attempts, reason);
+            outboxRepository.markFailedAttempt(message.getId(), OutboxMessage.OutboxStatus.FAILED,
+                    message.getNextAttemptAt(), reason);
+            failedCounter.increment();
+        } else {
+            long backoff = Math.min(retryMaxMillis, retryBaseMillis << Math.min(attempts - 1, 30));
+            log.warn("Outbox message {} to {} failed (attempt {}), retrying in {} ms: {}", message.getId(),
+                    message.getRecipient(), attempts, backoff, reason);
+            outboxRepository.markFailedAttempt(message.getId(), OutboxMessage.OutboxStatus.PENDING,
+                    LocalDateTime.now().plusNanos(backoff * 1_000_000), reason);
+            retriedCounter.increment();
+        }
+    }
+
+    @Scheduled(cron = "${notifications.retention-cron:0 30 * * * *}")
+    public void purgeSent() {
+        outboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        deliveryPool.shutdownNow();
+    }
+
+    private record Result(List<Long> sentIds, OutboxMessage failed, Exception error) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.think.health_first_server.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS, reason = "Too many concurrent logins, please retry shortly")
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException() {
+        this("Password hashing queue is full");
+    }
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
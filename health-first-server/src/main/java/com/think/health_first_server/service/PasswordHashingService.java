@@ -0,0 +1,175 @@
+package com.think.health_first_server.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs BCrypt hashing and verification on a small dedicated pool instead of the request threads, so a burst of
+ * logins is limited to a fixed share of the CPU. When the pool and its queue are full the caller gets a
+ * {@link PasswordHashingBusyException} (429) straight away rather than queueing without bound, and so does a caller
+ * whose hash has not finished within the timeout.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private int currentCost;
+
+    // Global registry so the service also reports when built outside Spring; Boot adds its registries to it
+    private final Timer encodeTimer = hashingTimer("encode");
+    private final Timer matchesTimer = hashingTimer("matches");
+    private final Counter rejectedCounter = Counter.builder("password.hashing.rejected")
+            .description("Hashing requests refused because the pool and queue were full")
+            .register(Metrics.globalRegistry);
+    private final Counter timedOutCounter = Counter.builder("password.hashing.timeouts")
+            .description("Hashing requests abandoned because they waited and ran longer than the timeout")
+            .register(Metrics.globalRegistry);
+
+    public PasswordHashingService(@Value("${password-hashing.threads:0}") int threads,
+                                  @Value("${password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${password-hashing.timeout-ms:5000}") long timeoutMillis) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "password-hashing", Tags.empty()).bindTo(Metrics.globalRegistry);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    private static Timer hashingTimer(String operation) {
+        return Timer.builder("password.hashing")
+                .description("BCrypt time on the hashing pool, excluding queue wait")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
+    @PostConstruct
+    void detectCost() {
+        currentCost = costOf(passwordEncoder.encode("cost-probe"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public String encode(String rawPassword) {
+        return await(submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword))));
+    }
+
+    public boolean matches(String rawPassword, String passwordHash) {
+        if (passwordHash == null) {
+            return false;
+        }
+        return await(submit(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, passwordHash))));
+    }
+
+    /**
+     * Hashes the password again at the current cost in the background when the stored hash uses a different cost.
+     * Best effort: if the pool is busy the upgrade is skipped and tried again on the next login.
+     */
+    public void rehashIfNeeded(String rawPassword, String passwordHash, Consumer<String> store) {
+        if (!needsRehash(passwordHash)) {
+            return;
+        }
+        try {
+            CompletableFuture.supplyAsync(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)), executor)
+                    .thenAccept(store)
+                    .exceptionally(e -> {
+                        log.warn("Password rehash failed", e);
+                        return null;
+                    });
+        } catch (RejectedExecutionException e) {
+            // Busy: leave the old hash in place
+        }
+    }
+
+    public boolean needsRehash(String passwordHash) {
+        int cost = costOf(passwordHash);
+        return cost > 0 && cost != currentCost;
+    }
+
+    public int getCurrentCost() {
+        return currentCost;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingBusyException();
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Dropped from the queue if still waiting there, so the pool does not work for a caller that has gone
+            future.cancel(true);
+            timedOutCounter.increment();
+            throw new PasswordHashingBusyException("Password hashing did not finish within " + timeoutMillis + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    // BCrypt hashes look like $2a$12$<salt+hash>; returns 0 for anything else
+    static int costOf(String passwordHash) {
+        if (passwordHash == null || passwordHash.length() < 7 || passwordHash.charAt(0) != '$'
+                || passwordHash.charAt(3) != '$' || passwordHash.charAt(6) != '$') {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(passwordHash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
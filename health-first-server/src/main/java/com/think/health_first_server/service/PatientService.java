@@ -4,13 +4,15 @@ import com.think.health_first_server.dao.Patient;
 import com.think.health_first_server.dto.LoginRequest;
 import com.think.health_first_server.dto.PatientRegisterRequest;
 import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.service.RegistrationKeyIndex.Key;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.Period;
@@ -20,9 +22,15 @@ public class PatientService {
     @Autowired
     private PatientRepository repository;
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashing;
     @Autowired
     private JwtService jwtService;
+    @Autowired
+    private RegistrationKeyIndex registrationKeys;
+    @Autowired
+    private NotificationService notifications;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     public Patient register(PatientRegisterRequest request) {
         if (!request.getPassword().equals(request.getConfirmPassword())) {
@@ -33,23 +41,43 @@ public class PatientService {
             throw new IllegalArgumentException("Must be at least 13 years old");
         }
 
-        if (repository.existsByEmail(request.getEmail())) {
+        if (registrationKeys.exists(Key.PATIENT_EMAIL, request.getEmail(), repository::existsByEmail)) {
             throw new IllegalArgumentException("Email already registered");
         }
 
+        if (registrationKeys.exists(Key.PATIENT_PHONE, request.getPhoneNumber(), repository::existsByPhoneNumber)) {
+            throw new IllegalArgumentException("Phone number already registered");
+        }
+
         Patient patient = new Patient();
         BeanUtils.copyProperties(request, patient);
-        patient.setPasswordHash(passwordEncoder.encode(request.getPassword()));
-        return repository.save(patient);
+        patient.setPasswordHash(passwordHashing.encode(request.getPassword()));
+        Patient saved;
+        try {
+            // Hashing stays outside: the transaction only spans the insert and its outbox row
+            saved = transactionTemplate.execute(status -> {
+                Patient persisted = repository.saveAndFlush(patient);
+                notifications.patientRegistered(persisted);
+                return persisted;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent registration for the same email or phone
+            throw new IllegalArgumentException("Email or phone number already registered");
+        }
+        registrationKeys.record(Key.PATIENT_EMAIL, saved.getEmail());
+        registrationKeys.record(Key.PATIENT_PHONE, saved.getPhoneNumber());
+        return saved;
     }
 
     public String login(LoginRequest request) {
         Patient patient = repository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new UsernameNotFoundException("Email not found"));
 
-        if (!passwordEncoder.matches(request.getPassword(), patient.getPasswordHash())) {
+        if (!passwordHashing.matches(request.getPassword(), patient.getPasswordHash())) {
             throw new BadCredentialsException("Invalid password");
         }
+        passwordHashing.rehashIfNeeded(request.getPassword(), patient.getPasswordHash(),
+                newHash -> repository.updatePasswordHash(patient.getId(), patient.getPasswordHash(), newHash));
 
         if (!patient.isActive()) {
             throw new AccessDeniedException("Account is inactive");
@@ -0,0 +1,123 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dto.AgendaEntry;
+import com.think.health_first_server.event.AppointmentChangedEvent;
+import com.think.health_first_server.repo.AppointmentRepository;
+import com.think.health_first_server.repo.ArchivedAppointmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Materialized per-provider, per-day agendas. A day is loaded with one range query the first time it is read and
+ * from then on patched from committed booking and status events, so serving it costs O(appointments that day).
+ * Days are kept in an LRU cache.
+ */
+@Service
+public class ProviderAgendaService {
+
+    private static final Comparator<AgendaEntry> ORDER = Comparator.comparing(AgendaEntry::getAppointmentDateTime)
+            .thenComparing(AgendaEntry::getAppointmentId);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ArchivedAppointmentRepository archiveRepository;
+    @Autowired
+    private AppointmentArchiveService archiveService;
+
+    // Guarded by itself: both the versions and the cached days are only touched under this lock
+    private final Map<AgendaKey, List<AgendaEntry>> agendas;
+    private final Map<UUID, Long> versions = new HashMap<>();
+
+    public ProviderAgendaService(@Value("${appointments.agenda.cache-size:5000}") int cacheSize) {
+        this.agendas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AgendaKey, List<AgendaEntry>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public List<AgendaEntry> getAgenda(UUID providerId, LocalDate day) {
+        AgendaKey key = new AgendaKey(providerId, day);
+        long version;
+        synchronized (agendas) {
+            List<AgendaEntry> cached = agendas.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            version = versions.getOrDefault(providerId, 0L);
+        }
+        List<AgendaEntry> loaded = load(providerId, day);
+        synchronized (agendas) {
+            // A change committed while the query ran may be missing from the result, so only cache a clean load
+            if (versions.getOrDefault(providerId, 0L) == version) {
+                agendas.put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        AgendaKey key = new AgendaKey(event.getProviderId(), event.getAppointmentDateTime().toLocalDate());
+        AgendaEntry entry = new AgendaEntry(event.getAppointmentId(), event.getAppointmentDateTime(),
+                event.getDurationMinutes(), event.getPatientId(), event.getPatientName(), event.getAppointmentMode(),
+                event.getAppointmentType(), event.getStatus());
+        synchronized (agendas) {
+            versions.merge(event.getProviderId(), 1L, Long::sum);
+            List<AgendaEntry> cached = agendas.get(key);
+            if (cached != null) {
+                agendas.put(key, upsert(cached, entry));
+            }
+        }
+    }
+
+    // Archived rows are final and never change, so a cached day stays valid when its rows move to the archive
+    private List<AgendaEntry> load(UUID providerId, LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        List<AgendaEntry> hot = appointmentRepository.findAgenda(providerId, from, to);
+        if (!from.isBefore(archiveService.cutoff()) || !archiveService.mayHaveArchivedForProvider(providerId)) {
+            return List.copyOf(hot);
+        }
+        // Hot first, so a row archived in between is seen twice rather than not at all
+        List<AgendaEntry> merged = new ArrayList<>(hot);
+        Set<UUID> hotIds = new HashSet<>();
+        hot.forEach(entry -> hotIds.add(entry.getAppointmentId()));
+        archiveRepository.findAgenda(providerId, from, to).stream()
+                .filter(entry -> !hotIds.contains(entry.getAppointmentId()))
+                .forEach(merged::add);
+        merged.sort(ORDER);
+        return List.copyOf(merged);
+    }
+
+    private static List<AgendaEntry> upsert(List<AgendaEntry> day, AgendaEntry entry) {
+        List<AgendaEntry> updated = new ArrayList<>(day.size() + 1);
+        for (AgendaEntry existing : day) {
+            if (!existing.getAppointmentId().equals(entry.getAppointmentId())) {
+                updated.add(existing);
+            }
+        }
+        updated.add(entry);
+        updated.sort(ORDER);
+        return List.copyOf(updated);
+    }
+
+    private record AgendaKey(UUID providerId, LocalDate day) {
+    }
+}
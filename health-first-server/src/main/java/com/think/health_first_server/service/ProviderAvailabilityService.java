@@ -2,12 +2,20 @@ package com.think.health_first_server.service;
 
 import com.think.health_first_server.dao.Provider;
 import com.think.health_first_server.dao.ProviderAvailability;
+import com.think.health_first_server.dto.AvailabilitySlot;
+import com.think.health_first_server.dto.OpenSlot;
 import com.think.health_first_server.dto.ProviderAvailabilityRequest;
+import com.think.health_first_server.dto.SlotSearchRequest;
+import com.think.health_first_server.event.AvailabilityChangedEvent;
 import com.think.health_first_server.repo.ProviderAvailabilityRepository;
 import com.think.health_first_server.repo.ProviderRepository;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
 
 @Service
 public class ProviderAvailabilityService {
@@ -15,16 +23,28 @@ public class ProviderAvailabilityService {
     private ProviderAvailabilityRepository availabilityRepository;
     @Autowired
     private ProviderRepository providerRepository;
+    @Autowired
+    private AvailabilityExpansionService expansionService;
+    @Autowired
+    private SlotSearchIndex slotSearchIndex;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ResourceVersions resourceVersions;
 
     public ProviderAvailability createAvailability(ProviderAvailabilityRequest request) {
         Provider provider = providerRepository.findById(request.getProviderId())
                 .orElseThrow(() -> new IllegalArgumentException("Provider not found"));
         ProviderAvailability availability = new ProviderAvailability();
-        BeanUtils.copyProperties(request, availability);
+        AvailabilityMapper.apply(request, availability);
         availability.setProvider(provider);
-        return availabilityRepository.save(availability);
+        ProviderAvailability saved = availabilityRepository.save(availability);
+        resourceVersions.bump(ResourceVersions.Scope.AVAILABILITY, saved.getId());
+        availabilityChanged(provider.getId());
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public ProviderAvailability getAvailability(java.util.UUID id) {
         return availabilityRepository.findById(id).orElse(null);
     }
@@ -32,17 +52,40 @@ public class ProviderAvailabilityService {
     public ProviderAvailability updateAvailability(java.util.UUID id, ProviderAvailabilityRequest request) {
         ProviderAvailability availability = availabilityRepository.findById(id).orElse(null);
         if (availability == null) return null;
-        BeanUtils.copyProperties(request, availability);
+        java.util.UUID previousProviderId = availability.getProvider().getId();
+        AvailabilityMapper.apply(request, availability);
         // Ensure provider is set correctly
         Provider provider = providerRepository.findById(request.getProviderId())
                 .orElseThrow(() -> new IllegalArgumentException("Provider not found"));
         availability.setProvider(provider);
-        return availabilityRepository.save(availability);
+        ProviderAvailability saved = availabilityRepository.save(availability);
+        resourceVersions.bump(ResourceVersions.Scope.AVAILABILITY, id);
+        availabilityChanged(previousProviderId);
+        if (!previousProviderId.equals(provider.getId())) {
+            availabilityChanged(provider.getId());
+        }
+        return saved;
     }
 
     public boolean deleteAvailability(java.util.UUID id) {
-        if (!availabilityRepository.existsById(id)) return false;
-        availabilityRepository.deleteById(id);
+        ProviderAvailability availability = availabilityRepository.findById(id).orElse(null);
+        if (availability == null) return false;
+        availabilityRepository.delete(availability);
+        resourceVersions.bump(ResourceVersions.Scope.AVAILABILITY, id);
+        availabilityChanged(availability.getProvider().getId());
         return true;
     }
+
+    public List<AvailabilitySlot> getSlots(java.util.UUID providerId, LocalDate from, LocalDate to) {
+        return expansionService.streamSlots(providerId, from, to).toList();
+    }
+
+    public List<OpenSlot> searchOpenSlots(SlotSearchRequest request) {
+        return slotSearchIndex.search(request);
+    }
+
+    void availabilityChanged(java.util.UUID providerId) {
+        expansionService.invalidate(providerId);
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(providerId));
+    }
 }
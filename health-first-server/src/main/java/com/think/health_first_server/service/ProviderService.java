@@ -5,50 +5,79 @@ import com.think.health_first_server.dto.LoginRequest;
 import com.think.health_first_server.dto.RegisterRequest;
 import com.think.health_first_server.enums.VerificationStatus;
 import com.think.health_first_server.repo.ProviderRepository;
+import com.think.health_first_server.service.RegistrationKeyIndex.Key;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class ProviderService {
 
     @Autowired private ProviderRepository repository;
-    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private PasswordHashingService passwordHashing;
     @Autowired
     private JwtService jwtService;
+    @Autowired
+    private RegistrationKeyIndex registrationKeys;
+    @Autowired
+    private NotificationService notifications;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     public Provider register(RegisterRequest request) {
         if (!request.getPassword().equals(request.getConfirmPassword()))
             throw new IllegalArgumentException("Passwords do not match");
 
-        if (repository.existsByEmail(request.getEmail()))
+        if (registrationKeys.exists(Key.PROVIDER_EMAIL, request.getEmail(), repository::existsByEmail))
             throw new IllegalArgumentException("Email already registered");
 
-        // repeat for phoneNumber and licenseNumber...
+        if (registrationKeys.exists(Key.PROVIDER_PHONE, request.getPhoneNumber(), repository::existsByPhoneNumber))
+            throw new IllegalArgumentException("Phone number already registered");
+
+        if (registrationKeys.exists(Key.PROVIDER_LICENSE, request.getLicenseNumber(), repository::existsByLicenseNumber))
+            throw new IllegalArgumentException("License number already registered");
 
         Provider provider = new Provider();
         provider.setFirstName(request.getFirstName());
         provider.setLastName(request.getLastName());
         provider.setEmail(request.getEmail());
         provider.setPhoneNumber(request.getPhoneNumber());
-        provider.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        provider.setPasswordHash(passwordHashing.encode(request.getPassword()));
         provider.setSpecialization(request.getSpecialization());
         provider.setLicenseNumber(request.getLicenseNumber());
         provider.setYearsOfExperience(request.getYearsOfExperience());
         provider.setClinicAddress(request.getClinicAddress());
-        return repository.save(provider);
+        Provider saved;
+        try {
+            // Hashing stays outside: the transaction only spans the insert and its outbox row
+            saved = transactionTemplate.execute(status -> {
+                Provider persisted = repository.saveAndFlush(provider);
+                notifications.providerRegistered(persisted);
+                return persisted;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent registration for the same email, phone or license
+            throw new IllegalArgumentException("Email, phone number or license number already registered");
+        }
+        registrationKeys.record(Key.PROVIDER_EMAIL, saved.getEmail());
+        registrationKeys.record(Key.PROVIDER_PHONE, saved.getPhoneNumber());
+        registrationKeys.record(Key.PROVIDER_LICENSE, saved.getLicenseNumber());
+        return saved;
     }
 
     public String login(LoginRequest loginRequest) {
         Provider provider = repository.findByEmail(loginRequest.getEmail())
                 .orElseThrow(() -> new UsernameNotFoundException("Invalid email"));
 
-        if (!passwordEncoder.matches(loginRequest.getPassword(), provider.getPasswordHash())) {
+        if (!passwordHashing.matches(loginRequest.getPassword(), provider.getPasswordHash())) {
             throw new BadCredentialsException("Invalid password");
         }
+        passwordHashing.rehashIfNeeded(loginRequest.getPassword(), provider.getPasswordHash(),
+                newHash -> repository.updatePasswordHash(provider.getId(), provider.getPasswordHash(), newHash));
 
         if (!provider.isActive() || provider.getVerificationStatus() != VerificationStatus.VERIFIED) {
             throw new AccessDeniedException("Account not active or verified");
@@ -0,0 +1,31 @@
+package com.think.health_first_server.service;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Per-request hint that read-only transactions must go to the primary database rather than a replica, because
+ * something the request reads changed more recently than a replica is guaranteed to have caught up with. Kept in the
+ * request attributes so it ends with the request; outside a request it is never set. Set from the change times of
+ * {@link ResourceVersions}, which only cover writes made through this instance, and from the cookie the
+ * {@code ReadYourWritesFilter} gives a client after each of its writes, which works on any instance.
+ */
+public final class ReadRouting {
+
+    private static final String PRIMARY_REQUIRED = ReadRouting.class.getName() + ".PRIMARY_REQUIRED";
+
+    private ReadRouting() {
+    }
+
+    public static void requirePrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(PRIMARY_REQUIRED, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public static boolean isPrimaryRequired() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null && attributes.getAttribute(PRIMARY_REQUIRED, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bloom filters over the unique registration keys (emails, phone numbers, licence numbers), so a registration
+ * whose keys are definitely new skips the existence queries. Only possible hits are confirmed against the database.
+ * Filters are loaded at startup, fed on every insert and reloaded at twice the size once they fill up.
+ */
+@Component
+public class RegistrationKeyIndex {
+
+    public enum Key {
+        PATIENT_EMAIL, PATIENT_PHONE, PROVIDER_EMAIL, PROVIDER_PHONE, PROVIDER_LICENSE
+    }
+
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Value("${registration.bloom.expected-insertions:100000}")
+    private long expectedInsertions;
+    @Value("${registration.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private final Map<Key, ReloadingBloomFilter> slots = new EnumMap<>(Key.class);
+
+    @PostConstruct
+    public void warm() {
+        slots.put(Key.PATIENT_EMAIL, newFilter(patientRepository::findAllEmails));
+        slots.put(Key.PATIENT_PHONE, newFilter(patientRepository::findAllPhoneNumbers));
+        slots.put(Key.PROVIDER_EMAIL, newFilter(providerRepository::findAllEmails));
+        slots.put(Key.PROVIDER_PHONE, newFilter(providerRepository::findAllPhoneNumbers));
+        slots.put(Key.PROVIDER_LICENSE, newFilter(providerRepository::findAllLicenseNumbers));
+        slots.values().forEach(filter -> filter.reload(true));
+    }
+
+    private ReloadingBloomFilter newFilter(Supplier<List<String>> loader) {
+        return new ReloadingBloomFilter(loader, expectedInsertions, falsePositiveRate);
+    }
+
+    /** True when the value is already taken; the database check only runs when the filter cannot rule it out. */
+    public boolean exists(Key key, String value, Predicate<String> databaseCheck) {
+        return value != null && slots.get(key).mightContain(value) && databaseCheck.test(value);
+    }
+
+    /** Call after the row carrying the value has been saved. */
+    public void record(Key key, String value) {
+        if (value != null) {
+            slots.get(key).put(value);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.think.health_first_server.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A {@link BloomFilter} over a set that only grows and can be listed from the database. It is loaded once up front,
+ * fed on every addition and reloaded at twice the size once it fills up. Values added ahead of their rows are kept
+ * as pending until they are settled, and merged into every reload in between, which the database cannot list yet.
+ */
+final class ReloadingBloomFilter {
+
+    private final Supplier<List<String>> loader;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private volatile BloomFilter current = new BloomFilter(1, 0.5); // placeholder until the first load
+    private volatile BloomFilter next;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    // Not synchronized: the reload queries the database and must not pin a virtual thread's carrier
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    ReloadingBloomFilter(Supplier<List<String>> loader, long expectedInsertions, double falsePositiveRate) {
+        this.loader = loader;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    boolean mightContain(String value) {
+        // While a reload is running the new filter may not have seen everything yet, so ask both
+        BloomFilter pending = next;
+        return current.mightContain(value) || (pending != null && pending.mightContain(value));
+    }
+
+    /** Adds a value whose row is not committed yet; reloads keep it until {@link #settle} is called. */
+    void putPending(String value) {
+        pending.add(value);
+        put(value);
+    }
+
+    /** The rows of these pending values are committed, or were never written; reloads can rely on the loader. */
+    void settle(Collection<String> values) {
+        pending.removeAll(values);
+    }
+
+    void put(String value) {
+        BloomFilter target = current;
+        target.put(value);
+        BloomFilter pending = next;
+        if (pending != null) {
+            pending.put(value);
+        } else if (current != target) {
+            current.put(value); // a reload swapped filters in between
+        }
+        if (current.isSaturated()) {
+            reload(false);
+        }
+    }
+
+    // Values saved while the query runs are put into both filters, and pending ones merged, so none is lost in the swap
+    void reload(boolean force) {
+        reloadLock.lock();
+        try {
+            if (!force && !current.isSaturated()) {
+                return; // another thread already grew it
+            }
+            BloomFilter filter = new BloomFilter(Math.max(expectedInsertions, current.insertions() * 2),
+                    falsePositiveRate);
+            next = filter;
+            try {
+                loader.get().forEach(filter::put);
+                pending.forEach(filter::put);
+                current = filter;
+            } finally {
+                next = null;
+            }
+            if (current.isSaturated()) {
+                reload(false);
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.event.AppointmentChangedEvent;
+import com.think.health_first_server.event.AvailabilityChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory change counters behind the ETags of the read endpoints, so a conditional GET can be answered without
+ * loading anything. Counters live in a fixed table indexed by the hash of (scope, id): two resources sharing a
+ * slot only cost each other a spurious 200, never a stale 304, and memory stays constant however many ids change.
+ * <p>
+ * Counters are bumped after commit. ETags must be taken before the data is read: a change landing in between then
+ * yields new data under the old tag, which the next request corrects, instead of old data under the new tag.
+ * The epoch differs per process, so tags issued before a restart never match. Like the other in-process caches this
+ * assumes all writes go through this instance: with several instances a tag issued by one is never bumped by writes
+ * through another, so conditional GETs need the balancer to keep each client on one instance.
+ * <p>
+ * Taking the tag of something that changed within the tolerated replica lag sends the request's reads to the
+ * primary, so the change is visible to whoever made it and a lagging replica never serves old data under a new tag.
+ * Writers reading through another instance are covered by the cookie of the ReadYourWritesFilter instead.
+ */
+@Service
+public class ResourceVersions {
+
+    public enum Scope {
+        APPOINTMENT, PATIENT_APPOINTMENTS, PROVIDER_APPOINTMENTS, ALL_APPOINTMENTS, AVAILABILITY, PROVIDER_AVAILABILITY
+    }
+
+    private final AtomicLongArray versions;
+    private final AtomicLongArray changedAt;
+    private final int mask;
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    @Value("${datasource.routing.max-replica-lag-ms:1000}")
+    private long maxReplicaLagMillis;
+
+    public ResourceVersions(@Value("${http.etag.version-slots:65536}") int slots) {
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.versions = new AtomicLongArray(size);
+        this.changedAt = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    /** Strong ETag for one resource or collection. */
+    public String etag(Scope scope, Object id) {
+        int slot = slot(scope, id);
+        long version = versions.get(slot);
+        requirePrimaryIfRecent(slot);
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    /** ETag for a view of a resource that also depends on something else, such as a defaulted date. */
+    public String etag(Scope scope, Object id, Object qualifier) {
+        int slot = slot(scope, id);
+        long version = versions.get(slot);
+        requirePrimaryIfRecent(slot);
+        return "\"" + epoch + "-" + version + "-" + qualifier + "\"";
+    }
+
+    public void bump(Scope scope, Object id) {
+        int slot = slot(scope, id);
+        // Time first: whoever sees the new version also sees when it changed
+        changedAt.set(slot, System.currentTimeMillis());
+        versions.incrementAndGet(slot);
+    }
+
+    private void requirePrimaryIfRecent(int slot) {
+        if (System.currentTimeMillis() - changedAt.get(slot) <= maxReplicaLagMillis) {
+            ReadRouting.requirePrimary();
+        }
+    }
+
+    // Last, after in-memory views such as the agenda cache have applied the change
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        bump(Scope.APPOINTMENT, event.getAppointmentId());
+        bump(Scope.PATIENT_APPOINTMENTS, event.getPatientId());
+        bump(Scope.PROVIDER_APPOINTMENTS, event.getProviderId());
+        bump(Scope.ALL_APPOINTMENTS, null);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        bump(Scope.PROVIDER_AVAILABILITY, event.getProviderId());
+    }
+
+    private int slot(Scope scope, Object id) {
+        int hash = 31 * scope.ordinal() + Objects.hashCode(id);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
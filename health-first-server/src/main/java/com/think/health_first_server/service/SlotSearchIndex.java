@@ -0,0 +1,331 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.ClinicAddress;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dao.ProviderAvailability;
+import com.think.health_first_server.dto.AvailabilitySlot;
+import com.think.health_first_server.dto.OpenSlot;
+import com.think.health_first_server.dto.SlotSearchRequest;
+import com.think.health_first_server.event.AppointmentChangedEvent;
+import com.think.health_first_server.event.AvailabilityChangedEvent;
+import com.think.health_first_server.event.OpenSlotsChangedEvent;
+import com.think.health_first_server.repo.ProviderAvailabilityRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed free capacity for every provider slot inside a rolling horizon, used to answer open-slot searches
+ * across providers without touching the database. Slots are stored per provider in sorted primitive arrays to keep
+ * the footprint small; free capacity is recomputed from the {@link AppointmentScheduleIndex} for the slots a booking
+ * or cancellation overlaps. Changes are numbered so that a rebuild, or a provider's own reload, never installs slots
+ * older than a change that arrived while they were being built.
+ */
+@Component
+public class SlotSearchIndex {
+
+    public static final int MAX_RESULTS = 200;
+
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+    @Autowired
+    private AvailabilityExpansionService expansionService;
+    @Autowired
+    private AppointmentScheduleIndex scheduleIndex;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${availability.search.horizon-days:28}")
+    private int horizonDays;
+
+    private final Map<UUID, ProviderSlots> providers = new ConcurrentHashMap<>();
+
+    // Sequence number of each provider's latest availability and booking change
+    private final AtomicLong changes = new AtomicLong();
+    private final Map<UUID, Long> rulesChangedAt = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> bookingsChangedAt = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    @Scheduled(cron = "${availability.search.rebuild-cron:0 5 0 * * *}")
+    public void rebuild() {
+        long since = changes.get();
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(horizonDays);
+        Map<Provider, List<ProviderAvailability>> rulesByProvider = availabilityRepository.findAllRulesInWindow(from, to)
+                .stream()
+                .collect(Collectors.groupingBy(ProviderAvailability::getProvider));
+        Map<UUID, ProviderSlots> rebuilt = new HashMap<>();
+        rulesByProvider.forEach((provider, rules) -> {
+            ProviderSlots slots = build(provider, rules, from, to);
+            if (slots != null) {
+                rebuilt.put(provider.getId(), slots);
+            }
+        });
+        Set<UUID> providerIds = new HashSet<>(providers.keySet());
+        providerIds.addAll(rebuilt.keySet());
+        providerIds.forEach(providerId -> install(providerId, rebuilt.get(providerId), since));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        UUID providerId = event.getProviderId();
+        long since = changes.incrementAndGet();
+        rulesChangedAt.put(providerId, since);
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(horizonDays);
+        Provider provider = providerRepository.findById(providerId).orElse(null);
+        ProviderSlots slots = provider == null ? null
+                : build(provider, availabilityRepository.findRulesInWindow(providerId, from, to), from, to);
+        install(providerId, slots, since);
+        ProviderInfo info = provider == null ? null : ProviderInfo.of(provider);
+        eventPublisher.publishEvent(info == null
+                ? new OpenSlotsChangedEvent(providerId, null, null, null, null, true, List.of())
+                : new OpenSlotsChangedEvent(providerId, info.specialization(), info.city(), info.state(), info.zip(),
+                true, List.of()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        // Numbered before the refresh, so slots being built meanwhile see it in install()
+        bookingsChangedAt.put(event.getProviderId(), changes.incrementAndGet());
+        ProviderSlots slots = providers.get(event.getProviderId());
+        if (slots != null) {
+            List<OpenSlot> changed = slots.refresh(event.getAppointmentDateTime(), event.getDurationMinutes(), scheduleIndex);
+            if (!changed.isEmpty()) {
+                ProviderInfo info = slots.provider;
+                eventPublisher.publishEvent(new OpenSlotsChangedEvent(info.id(), info.specialization(), info.city(),
+                        info.state(), info.zip(), false, changed));
+            }
+        }
+    }
+
+    public List<OpenSlot> search(SlotSearchRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = request.getFrom() == null || request.getFrom().isBefore(now) ? now : request.getFrom();
+        LocalDateTime to = request.getTo() == null ? from.plusDays(horizonDays) : request.getTo();
+        int limit = Math.max(1, Math.min(request.getLimit(), MAX_RESULTS));
+        SlotFilter filter = new SlotFilter(request);
+
+        // Max-heap on start time keeps only the earliest `limit` matches
+        PriorityQueue<OpenSlot> earliest = new PriorityQueue<>(Comparator.comparing(OpenSlot::getStart).reversed());
+        for (ProviderSlots slots : providers.values()) {
+            if (filter.matches(slots.provider)) {
+                slots.collect(toMinutes(from), toMinutes(to), filter, limit, earliest);
+            }
+        }
+        List<OpenSlot> results = new ArrayList<>(earliest);
+        results.sort(Comparator.comparing(OpenSlot::getStart));
+        return results;
+    }
+
+    /**
+     * Installs slots built from the rules and bookings seen after change {@code since}, or removes the provider when
+     * null. Slots already rebuilt for a later rules change are kept; bookings changed since are counted again, as
+     * their refresh may have gone to the slots being replaced.
+     */
+    private void install(UUID providerId, ProviderSlots slots, long since) {
+        ProviderSlots installed = providers.compute(providerId, (id, current) ->
+                rulesChangedAt.getOrDefault(id, 0L) > since ? current : slots);
+        if (slots != null && installed == slots && bookingsChangedAt.getOrDefault(providerId, 0L) > since) {
+            slots.refreshAll(scheduleIndex);
+        }
+    }
+
+    private ProviderSlots build(Provider provider, List<ProviderAvailability> rules, LocalDate from, LocalDate to) {
+        if (!provider.isActive()) {
+            return null;
+        }
+        List<AvailabilitySlot> expanded = rules.stream()
+                .flatMap(rule -> expansionService.expand(rule, from, to))
+                .sorted(Comparator.comparing(AvailabilitySlot::getStart))
+                .toList();
+        if (expanded.isEmpty()) {
+            return null;
+        }
+        ProviderSlots slots = new ProviderSlots(ProviderInfo.of(provider), expanded);
+        slots.refreshAll(scheduleIndex);
+        return slots;
+    }
+
+    private static long toMinutes(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromMinutes(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase();
+    }
+
+    private record ProviderInfo(UUID id, String name, String specialization, String city, String state, String zip,
+                                String specializationKey, String cityKey, String stateKey, String zipKey) {
+        static ProviderInfo of(Provider provider) {
+            ClinicAddress address = provider.getClinicAddress();
+            String city = address != null ? address.getCity() : null;
+            String state = address != null ? address.getState() : null;
+            String zip = address != null ? address.getZip() : null;
+            return new ProviderInfo(provider.getId(), provider.getFirstName() + " " + provider.getLastName(),
+                    provider.getSpecialization(), city, state, zip,
+                    normalize(provider.getSpecialization()), normalize(city), normalize(state), normalize(zip));
+        }
+    }
+
+    private record RuleInfo(UUID availabilityId, String appointmentType, String locationType,
+                            String appointmentTypeKey, String locationTypeKey, int maxAppointments) {
+    }
+
+    private record SlotFilter(String specialization, String city, String state, String zip,
+                              String locationType, String appointmentType) {
+        SlotFilter(SlotSearchRequest request) {
+            this(normalize(request.getSpecialization()), normalize(request.getCity()), normalize(request.getState()),
+                    normalize(request.getZip()), normalize(request.getLocationType()), normalize(request.getAppointmentType()));
+        }
+
+        boolean matches(ProviderInfo provider) {
+            return accepts(specialization, provider.specializationKey())
+                    && accepts(city, provider.cityKey())
+                    && accepts(state, provider.stateKey())
+                    && accepts(zip, provider.zipKey());
+        }
+
+        boolean matches(RuleInfo rule) {
+            return accepts(locationType, rule.locationTypeKey()) && accepts(appointmentType, rule.appointmentTypeKey());
+        }
+
+        private static boolean accepts(String wanted, String actual) {
+            return wanted == null || wanted.equals(actual);
+        }
+    }
+
+    private static final class ProviderSlots {
+        private final ProviderInfo provider;
+        private final RuleInfo[] rules;
+        private final long[] starts;
+        private final int[] durations;
+        private final int[] ruleIndexes;
+        private final AtomicIntegerArray free;
+        private final int longestDuration;
+
+        ProviderSlots(ProviderInfo provider, List<AvailabilitySlot> expanded) {
+            this.provider = provider;
+            Map<UUID, Integer> ruleIds = new HashMap<>();
+            List<RuleInfo> ruleList = new ArrayList<>();
+            int size = expanded.size();
+            starts = new long[size];
+            durations = new int[size];
+            ruleIndexes = new int[size];
+            int longest = 0;
+            for (int i = 0; i < size; i++) {
+                AvailabilitySlot slot = expanded.get(i);
+                ruleIndexes[i] = ruleIds.computeIfAbsent(slot.getAvailabilityId(), id -> {
+                    ruleList.add(new RuleInfo(id, slot.getAppointmentType(), slot.getLocationType(),
+                            normalize(slot.getAppointmentType()), normalize(slot.getLocationType()),
+                            Math.max(1, slot.getMaxAppointments())));
+                    return ruleList.size() - 1;
+                });
+                starts[i] = toMinutes(slot.getStart());
+                durations[i] = (int) (toMinutes(slot.getEnd()) - starts[i]);
+                longest = Math.max(longest, durations[i]);
+            }
+            rules = ruleList.toArray(new RuleInfo[0]);
+            free = new AtomicIntegerArray(size);
+            longestDuration = longest;
+        }
+
+        // Refreshes of one provider are serialized: each recounts and stores under the lock, so a slower refresh that
+        // counted before a later booking can never overwrite the capacity stored after it
+        synchronized void refreshAll(AppointmentScheduleIndex scheduleIndex) {
+            for (int i = 0; i < starts.length; i++) {
+                refreshSlot(i, scheduleIndex);
+            }
+        }
+
+        /** Returns the slots whose free capacity changed. */
+        synchronized List<OpenSlot> refresh(LocalDateTime start, Integer durationMinutes, AppointmentScheduleIndex scheduleIndex) {
+            long from = toMinutes(start);
+            long to = from + (durationMinutes != null ? durationMinutes : Appointment.DEFAULT_DURATION_MINUTES);
+            List<OpenSlot> changed = new ArrayList<>();
+            for (int i = firstIndexFrom(from - longestDuration); i < starts.length && starts[i] < to; i++) {
+                if (starts[i] + durations[i] > from) {
+                    int capacity = refreshSlot(i, scheduleIndex);
+                    if (capacity >= 0) {
+                        changed.add(openSlot(i, capacity));
+                    }
+                }
+            }
+            return changed;
+        }
+
+        // The new free capacity, or -1 when it did not change
+        private int refreshSlot(int i, AppointmentScheduleIndex scheduleIndex) {
+            int booked = scheduleIndex.countOverlapping(provider.id(), fromMinutes(starts[i]), durations[i]);
+            int capacity = Math.max(0, rules[ruleIndexes[i]].maxAppointments() - booked);
+            return free.getAndSet(i, capacity) != capacity ? capacity : -1;
+        }
+
+        private OpenSlot openSlot(int i, int capacity) {
+            RuleInfo rule = rules[ruleIndexes[i]];
+            return new OpenSlot(provider.id(), provider.name(), provider.specialization(),
+                    provider.city(), provider.state(), provider.zip(), rule.availabilityId(),
+                    fromMinutes(starts[i]), fromMinutes(starts[i] + durations[i]),
+                    rule.appointmentType(), rule.locationType(), capacity);
+        }
+
+        void collect(long from, long to, SlotFilter filter, int limit, PriorityQueue<OpenSlot> earliest) {
+            for (int i = firstIndexFrom(from); i < starts.length && starts[i] < to; i++) {
+                if (earliest.size() >= limit && starts[i] >= toMinutes(earliest.peek().getStart())) {
+                    return;
+                }
+                int capacity = free.get(i);
+                RuleInfo rule = rules[ruleIndexes[i]];
+                if (capacity <= 0 || !filter.matches(rule)) {
+                    continue;
+                }
+                earliest.add(openSlot(i, capacity));
+                if (earliest.size() > limit) {
+                    earliest.poll();
+                }
+            }
+        }
+
+        private int firstIndexFrom(long minutes) {
+            int index = Arrays.binarySearch(starts, minutes);
+            if (index < 0) {
+                return -index - 1;
+            }
+            // Several rules may start a slot at the same minute; step back to the first of them
+            while (index > 0 && starts[index - 1] == minutes) {
+                index--;
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dao.OutboxMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+/** Sends through the {@code spring.mail.*} SMTP server; enabled with {@code notifications.sender=smtp}. */
+@Component
+@ConditionalOnProperty(name = "notifications.sender", havingValue = "smtp")
+public class SmtpNotificationSender implements NotificationSender {
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${notifications.from:no-reply@healthfirst.local}")
+    private String from;
+
+    @Override
+    public void send(OutboxMessage message) {
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setFrom(from);
+        mail.setTo(message.getRecipient());
+        mail.setSubject(message.getSubject());
+        mail.setText(message.getBody());
+        mailSender.send(mail);
+    }
+}
@@ -0,0 +1,11 @@
+package com.think.health_first_server.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Too many availability subscribers, please retry shortly")
+public class StreamCapacityExceededException extends RuntimeException {
+    public StreamCapacityExceededException() {
+        super("Availability stream subscriber limit reached");
+    }
+}
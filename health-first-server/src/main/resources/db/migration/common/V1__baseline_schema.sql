@@ -0,0 +1,125 @@
+-- Schema as previously generated by ddl-auto: update, in types both H2 and PostgreSQL accept.
+-- Databases created that way are baselined at this version (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE patients (
+    id              UUID         NOT NULL,
+    first_name      VARCHAR(255),
+    last_name       VARCHAR(255),
+    email           VARCHAR(255),
+    phone_number    VARCHAR(255),
+    password_hash   VARCHAR(255),
+    date_of_birth   DATE,
+    gender          VARCHAR(255),
+    street          VARCHAR(255),
+    city            VARCHAR(255),
+    state           VARCHAR(255),
+    zip             VARCHAR(255),
+    name            VARCHAR(255),
+    phone           VARCHAR(255),
+    relationship    VARCHAR(255),
+    provider        VARCHAR(255),
+    policy_number   VARCHAR(255),
+    email_verified  BOOLEAN      NOT NULL,
+    phone_verified  BOOLEAN      NOT NULL,
+    is_active       BOOLEAN      NOT NULL,
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    CONSTRAINT pk_patients PRIMARY KEY (id),
+    CONSTRAINT uk_patients_email UNIQUE (email),
+    CONSTRAINT uk_patients_phone_number UNIQUE (phone_number)
+);
+
+CREATE TABLE patient_medical_history (
+    patient_id      UUID         NOT NULL,
+    medical_history VARCHAR(255),
+    CONSTRAINT fk_patient_medical_history_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+);
+
+CREATE TABLE providers (
+    id                  UUID         NOT NULL,
+    first_name          VARCHAR(255),
+    last_name           VARCHAR(255),
+    email               VARCHAR(255),
+    phone_number        VARCHAR(255),
+    password_hash       VARCHAR(255),
+    specialization      VARCHAR(255),
+    license_number      VARCHAR(255),
+    years_of_experience INTEGER      NOT NULL,
+    street              VARCHAR(255),
+    city                VARCHAR(255),
+    state               VARCHAR(255),
+    zip                 VARCHAR(255),
+    verification_status VARCHAR(255),
+    is_active           BOOLEAN      NOT NULL,
+    created_at          TIMESTAMP(6),
+    updated_at          TIMESTAMP(6),
+    CONSTRAINT pk_providers PRIMARY KEY (id),
+    CONSTRAINT uk_providers_email UNIQUE (email),
+    CONSTRAINT uk_providers_phone_number UNIQUE (phone_number),
+    CONSTRAINT uk_providers_license_number UNIQUE (license_number)
+);
+
+CREATE TABLE appointments (
+    id                    UUID             NOT NULL,
+    patient_id            UUID             NOT NULL,
+    provider_id           UUID             NOT NULL,
+    appointment_mode      VARCHAR(255)     NOT NULL,
+    appointment_type      VARCHAR(255)     NOT NULL,
+    estimated_amount      DOUBLE PRECISION,
+    appointment_date_time TIMESTAMP(6)     NOT NULL,
+    duration_minutes      INTEGER,
+    reason_for_visit      TEXT,
+    status                VARCHAR(255)     NOT NULL,
+    created_at            TIMESTAMP(6)     NOT NULL,
+    updated_at            TIMESTAMP(6),
+    CONSTRAINT pk_appointments PRIMARY KEY (id),
+    CONSTRAINT fk_appointments_patient FOREIGN KEY (patient_id) REFERENCES patients (id),
+    CONSTRAINT fk_appointments_provider FOREIGN KEY (provider_id) REFERENCES providers (id)
+);
+
+CREATE TABLE provider_availability (
+    id                        UUID             NOT NULL,
+    provider_id               UUID             NOT NULL,
+    date                      DATE,
+    start_time                TIME,
+    end_time                  TIME,
+    timezone                  VARCHAR(255),
+    is_recurring              BOOLEAN          NOT NULL,
+    recurrence_pattern        VARCHAR(255),
+    recurrence_end_date       DATE,
+    slot_duration             INTEGER          NOT NULL,
+    break_duration            INTEGER          NOT NULL,
+    status                    VARCHAR(255),
+    max_appointments_per_slot INTEGER          NOT NULL,
+    current_appointments      INTEGER          NOT NULL,
+    appointment_type          VARCHAR(255),
+    location_type             VARCHAR(255),
+    location_address          VARCHAR(255),
+    room_number               VARCHAR(255),
+    base_fee                  DOUBLE PRECISION,
+    insurance_accepted        BOOLEAN,
+    currency                  VARCHAR(255),
+    notes                     VARCHAR(255),
+    special_requirements      VARCHAR(255),
+    created_at                TIMESTAMP(6),
+    updated_at                TIMESTAMP(6),
+    CONSTRAINT pk_provider_availability PRIMARY KEY (id),
+    CONSTRAINT fk_provider_availability_provider FOREIGN KEY (provider_id) REFERENCES providers (id)
+);
+
+CREATE SEQUENCE outbox_messages_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE outbox_messages (
+    id              BIGINT       NOT NULL,
+    recipient       VARCHAR(255) NOT NULL,
+    type            VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    body            TEXT         NOT NULL,
+    status          VARCHAR(255) NOT NULL,
+    attempts        INTEGER      NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error      VARCHAR(255),
+    created_at      TIMESTAMP(6),
+    sent_at         TIMESTAMP(6),
+    CONSTRAINT pk_outbox_messages PRIMARY KEY (id)
+);
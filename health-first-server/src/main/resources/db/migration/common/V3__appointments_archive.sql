@@ -0,0 +1,23 @@
+-- Cold tier for final appointments past the retention window, filled by the archiver. Same columns as
+-- appointments; rows are only ever inserted. No foreign keys: the rows were checked when they were booked.
+
+CREATE TABLE appointments_archive (
+    id                    UUID             NOT NULL,
+    patient_id            UUID             NOT NULL,
+    provider_id           UUID             NOT NULL,
+    appointment_mode      VARCHAR(255)     NOT NULL,
+    appointment_type      VARCHAR(255)     NOT NULL,
+    estimated_amount      DOUBLE PRECISION,
+    appointment_date_time TIMESTAMP(6)     NOT NULL,
+    duration_minutes      INTEGER,
+    reason_for_visit      TEXT,
+    status                VARCHAR(255)     NOT NULL,
+    created_at            TIMESTAMP(6)     NOT NULL,
+    updated_at            TIMESTAMP(6),
+    archived_at           TIMESTAMP(6)     NOT NULL,
+    CONSTRAINT pk_appointments_archive PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_appointments_archive_patient_time ON appointments_archive (patient_id, appointment_date_time);
+
+CREATE INDEX idx_appointments_archive_provider_time ON appointments_archive (provider_id, appointment_date_time);
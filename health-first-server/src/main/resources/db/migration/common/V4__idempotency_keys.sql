@@ -0,0 +1,15 @@
+-- Idempotency-Key records for retried POSTs. A row is claimed IN_PROGRESS before the request runs and holds the
+-- response once it completes, so a retry on any instance gets the original answer until expires_at.
+
+CREATE TABLE idempotency_keys (
+    id              VARCHAR(320) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    status          VARCHAR(32)  NOT NULL,
+    response_status INTEGER,
+    response_body   TEXT,
+    locked_at       TIMESTAMP(6) NOT NULL,
+    expires_at      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
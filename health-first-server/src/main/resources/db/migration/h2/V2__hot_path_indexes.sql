@@ -0,0 +1,18 @@
+-- Same access paths as the PostgreSQL migration. H2 has no partial indexes, so status becomes a trailing column
+-- where the query filters on it. Foreign key columns are already indexed by H2 itself.
+
+CREATE INDEX idx_appointments_provider_time ON appointments (provider_id, appointment_date_time, status);
+
+CREATE INDEX idx_appointments_patient_time ON appointments (patient_id, appointment_date_time);
+
+CREATE INDEX idx_appointments_time_status ON appointments (appointment_date_time, status);
+
+CREATE INDEX idx_provider_availability_provider_date ON provider_availability (provider_id, date);
+
+CREATE INDEX idx_provider_availability_date ON provider_availability (date);
+
+CREATE INDEX idx_outbox_status_next_attempt ON outbox_messages (status, next_attempt_at, id);
+
+CREATE INDEX idx_outbox_recipient_status ON outbox_messages (recipient, status, id);
+
+CREATE INDEX idx_outbox_status_sent_at ON outbox_messages (status, sent_at);
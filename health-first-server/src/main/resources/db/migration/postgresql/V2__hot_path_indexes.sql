@@ -0,0 +1,37 @@
+-- Indexes for the filtered repository queries. Built concurrently so applying this to a live database does not
+-- block writes; Flyway runs the script outside a transaction because of that.
+
+-- Listings and the agenda by provider, and the booking window lookup
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_appointments_provider_time
+    ON appointments (provider_id, appointment_date_time);
+
+-- Conflict check on booking; cancelled appointments never block a slot
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_appointments_provider_time_active
+    ON appointments (provider_id, appointment_date_time) WHERE status <> 'CANCELLED';
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_appointments_patient_time
+    ON appointments (patient_id, appointment_date_time);
+
+-- Rebuild of the open-slot index
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_appointments_time_active
+    ON appointments (appointment_date_time) WHERE status <> 'CANCELLED';
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_provider_availability_provider_date
+    ON provider_availability (provider_id, date);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_provider_availability_date
+    ON provider_availability (date);
+
+-- PostgreSQL does not index foreign keys by itself
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_patient_medical_history_patient
+    ON patient_medical_history (patient_id);
+
+-- Outbox: due messages in id order, the per-recipient backoff check and the purge of sent ones
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_pending_id
+    ON outbox_messages (id, next_attempt_at) WHERE status = 'PENDING';
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_pending_recipient
+    ON outbox_messages (recipient, id) WHERE status = 'PENDING';
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_sent_at
+    ON outbox_messages (sent_at) WHERE status = 'SENT';
@@ -0,0 +1,4 @@
+-- The archiver's scan for final appointments past the retention window. Only final rows not yet moved are in it,
+-- so it stays small. On H2 the scan uses idx_appointments_time_status.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_appointments_archivable
+    ON appointments (appointment_date_time) WHERE status IN ('COMPLETED', 'CANCELLED', 'NO_SHOW');
@@ -0,0 +1,60 @@
+package com.think.health_first_server;
+
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Unsaved entities for tests, with the unique columns (email, phone, license) filled from a random suffix so tests
+ * sharing a database never collide.
+ */
+public final class TestData {
+
+    private TestData() {
+    }
+
+    public static Patient patient(String firstName, String lastName) {
+        String suffix = suffix();
+        Patient patient = new Patient();
+        patient.setFirstName(firstName);
+        patient.setLastName(lastName);
+        patient.setEmail(email(firstName, lastName, suffix));
+        patient.setPhoneNumber("+1555" + suffix);
+        return patient;
+    }
+
+    public static Provider provider(String firstName, String lastName) {
+        String suffix = suffix();
+        Provider provider = new Provider();
+        provider.setFirstName(firstName);
+        provider.setLastName(lastName);
+        provider.setEmail(email(firstName, lastName, suffix));
+        provider.setPhoneNumber("+1666" + suffix);
+        provider.setPasswordHash("hash");
+        provider.setSpecialization("Cardiology");
+        provider.setLicenseNumber("LIC" + suffix);
+        return provider;
+    }
+
+    /** A scheduled in-person consultation of the default length. */
+    public static Appointment appointment(Patient patient, Provider provider, LocalDateTime start) {
+        Appointment appointment = new Appointment();
+        appointment.setPatient(patient);
+        appointment.setProvider(provider);
+        appointment.setAppointmentMode(Appointment.AppointmentMode.IN_PERSON);
+        appointment.setAppointmentType("consultation");
+        appointment.setAppointmentDateTime(start);
+        return appointment;
+    }
+
+    private static String email(String firstName, String lastName, String suffix) {
+        return (firstName + "." + lastName + "." + suffix).toLowerCase().replaceAll("[^a-z0-9.]", "") + "@example.com";
+    }
+
+    private static String suffix() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,148 @@
+package com.think.health_first_server.config;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "admission.rate-limits.listing.burst=3",
+        "admission.rate-limits.listing.per-minute=1",
+        "admission.shedding.sample-ms=3600000" // levels are driven by the test
+})
+@AutoConfigureMockMvc
+class AdmissionControlTest {
+
+    private static final int LISTING_BURST = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private LoadShedder loadShedder;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @AfterEach
+    void recover() {
+        for (int i = 0; i < LoadShedder.MAX_LEVEL; i++) {
+            loadShedder.update(0, 0);
+        }
+    }
+
+    @Test
+    void listingBudgetIsPerAddress() throws Exception {
+        String noisy = randomAddress();
+        for (int i = 0; i < LISTING_BURST; i++) {
+            mockMvc.perform(listing(noisy)).andExpect(status().isOk());
+        }
+        mockMvc.perform(listing(noisy))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.success").value(false));
+
+        mockMvc.perform(listing(randomAddress())).andExpect(status().isOk());
+    }
+
+    @Test
+    void authenticatedClientsAreLimitedBySubjectAcrossAddresses() throws Exception {
+        String noisy = "Bearer " + jwtService.generateToken(savePatient());
+        String quiet = "Bearer " + jwtService.generateToken(savePatient());
+        for (int i = 0; i < LISTING_BURST; i++) {
+            mockMvc.perform(listing(randomAddress()).header(HttpHeaders.AUTHORIZATION, noisy))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(listing(randomAddress()).header(HttpHeaders.AUTHORIZATION, noisy))
+                .andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(listing(randomAddress()).header(HttpHeaders.AUTHORIZATION, quiet))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void authenticatedClientsAreLimitedByAddressToo() throws Exception {
+        String sharedAddress = randomAddress();
+        for (int i = 0; i < LISTING_BURST; i++) {
+            String token = "Bearer " + jwtService.generateToken(savePatient());
+            mockMvc.perform(listing(sharedAddress).header(HttpHeaders.AUTHORIZATION, token))
+                    .andExpect(status().isOk());
+        }
+        // A fresh subject has a full bucket, but the address it comes from is spent
+        String fresh = "Bearer " + jwtService.generateToken(savePatient());
+        mockMvc.perform(listing(sharedAddress).header(HttpHeaders.AUTHORIZATION, fresh))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void forgedTokensAreLimitedBeforeVerification() throws Exception {
+        String address = randomAddress();
+        String forged = "Bearer not.a.token";
+        for (int i = 0; i < LISTING_BURST; i++) {
+            mockMvc.perform(listing(address).header(HttpHeaders.AUTHORIZATION, forged))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(listing(address).header(HttpHeaders.AUTHORIZATION, forged))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void overloadShedsListingsBeforeBookings() throws Exception {
+        loadShedder.update(1000, 0);
+        assertThat(loadShedder.getLevel()).isEqualTo(1);
+
+        mockMvc.perform(listing(randomAddress()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        // Bookings still reach the controller, which rejects the unknown patient itself
+        mockMvc.perform(post("/api/v1/appointments/book").with(address(randomAddress()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"patientId\":\"" + UUID.randomUUID() + "\",\"providerId\":\"" + UUID.randomUUID()
+                                + "\",\"appointmentMode\":\"IN_PERSON\",\"appointmentType\":\"Consultation\","
+                                + "\"appointmentDateTime\":\"2030-01-07T10:00:00\"}"))
+                .andExpect(status().isBadRequest());
+
+        loadShedder.update(0, 0);
+        mockMvc.perform(listing(randomAddress())).andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder listing(String address) {
+        return get("/api/v1/appointments").with(address(address));
+    }
+
+    private static RequestPostProcessor address(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    private static String randomAddress() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(1, 255);
+    }
+
+    private Patient savePatient() {
+        return patientRepository.save(TestData.patient("Limited", "Patient"));
+    }
+}
@@ -0,0 +1,19 @@
+package com.think.health_first_server.config;
+
+/**
+ * Test access to the statements {@link QueryCountingInspector} counted on the current thread. Unlike the session
+ * factory statistics, the count leaves out whatever the scheduled jobs run at the same time.
+ */
+public final class QueryCounts {
+
+    private QueryCounts() {
+    }
+
+    public static void reset() {
+        QueryCountingInspector.reset();
+    }
+
+    public static int count() {
+        return QueryCountingInspector.count();
+    }
+}
@@ -0,0 +1,39 @@
+package com.think.health_first_server.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaLagMonitorTest {
+
+    private final DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:lag-probe", "sa", "");
+
+    @Test
+    void replicaIsUsedOnlyWithinTheLagTolerance() {
+        assertThat(probed("SELECT 0").isUsable()).isTrue();
+        assertThat(probed("SELECT 1000").isUsable()).isTrue();
+        assertThat(probed("SELECT 1001").isUsable()).isFalse();
+    }
+
+    @Test
+    void replicaWithoutUpstreamIsNotUsed() {
+        ReplicaLagMonitor monitor = probed("SELECT CAST(NULL AS INT)");
+
+        assertThat(monitor.isUsable()).isFalse();
+        assertThat(monitor.lagMillis()).isEqualTo(-1);
+    }
+
+    @Test
+    void unreachableReplicaIsNotUsed() {
+        assertThat(probed("SELECT * FROM no_such_table").isUsable()).isFalse();
+    }
+
+    private ReplicaLagMonitor probed(String lagQuery) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, lagQuery, 1000, 1000);
+        monitor.probe();
+        return monitor;
+    }
+}
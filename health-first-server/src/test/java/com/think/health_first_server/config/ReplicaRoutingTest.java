@@ -0,0 +1,159 @@
+package com.think.health_first_server.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two separate H2 databases; a row that only exists in the "replica" shows which one served a read
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "datasource.replica.jdbc-url=" + ReplicaRoutingTest.REPLICA_URL,
+        "datasource.replica.username=sa",
+        "datasource.routing.lag-query=SELECT 0",
+        "datasource.routing.lag-probe-ms=3600000"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        // Written around the application's read-only replica pool, as replication would
+        DataSource replicaDataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure()
+                .dataSource(replicaDataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+        replica = new JdbcTemplate(replicaDataSource);
+        primary = new JdbcTemplate(primaryDataSource);
+        lagMonitor.probe();
+    }
+
+    @Test
+    void readOnlyListingsComeFromTheReplicaUntilTheirDataChanges() throws Exception {
+        Patient patient = patientRepository.save(TestData.patient("Routing", "Patient"));
+
+        Provider provider = providerRepository.save(TestData.provider("Routing", "Provider"));
+
+        UUID replicaOnly = copyToReplicaWithExtraAppointment(patient, provider);
+
+        // Nothing changed for this provider lately, so the read-only listing is served by the replica
+        mockMvc.perform(get("/api/v1/appointments/provider/{id}", provider.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(replicaOnly.toString())));
+
+        // Booked through the controller, which looks the patient and provider up in read-only transactions before the
+        // write; evicted from the entity cache so the lookups take a connection, and the write must not reuse it
+        entityManagerFactory.getCache().evictAll();
+        String booked = mockMvc.perform(post("/api/v1/appointments/book")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "patientId", patient.getId(),
+                                "providerId", provider.getId(),
+                                "appointmentMode", "IN_PERSON",
+                                "appointmentType", "consultation",
+                                "appointmentDateTime", LocalDate.now().plusDays(2).atTime(10, 0).toString()))))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().maxAge(ReadYourWritesFilter.COOKIE, 1))
+                .andReturn().getResponse().getContentAsString();
+        UUID bookedId = UUID.fromString(objectMapper.readTree(booked).at("/data/appointment_id").asText());
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM appointments WHERE id = ?", Integer.class, bookedId))
+                .isEqualTo(1);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM appointments WHERE id = ?", Integer.class, bookedId))
+                .isZero();
+
+        // Within the lag tolerance of the booking the listing is read from the primary, which has the new row
+        mockMvc.perform(get("/api/v1/appointments/provider/{id}", provider.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(bookedId.toString())))
+                .andExpect(content().string(not(containsString(replicaOnly.toString()))));
+    }
+
+    @Test
+    void aClientThatJustWroteReadsFromThePrimaryEvenForDataThisInstanceSawUnchanged() throws Exception {
+        Patient patient = patientRepository.save(TestData.patient("Sticky", "Patient"));
+        Provider provider = providerRepository.save(TestData.provider("Sticky", "Provider"));
+        UUID replicaOnly = copyToReplicaWithExtraAppointment(patient, provider);
+
+        // As after a write through another instance: nothing changed here, but the client carries the cookie
+        mockMvc.perform(get("/api/v1/appointments/provider/{id}", provider.getId())
+                        .cookie(new Cookie(ReadYourWritesFilter.COOKIE, "1")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString(replicaOnly.toString()))));
+
+        mockMvc.perform(get("/api/v1/appointments/provider/{id}", provider.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(replicaOnly.toString())));
+    }
+
+    private UUID copyToReplicaWithExtraAppointment(Patient patient, Provider provider) {
+        replica.update("INSERT INTO patients (id, first_name, last_name, email, phone_number, email_verified, " +
+                        "phone_verified, is_active) VALUES (?, ?, ?, ?, ?, FALSE, FALSE, TRUE)",
+                patient.getId(), patient.getFirstName(), patient.getLastName(), patient.getEmail(),
+                patient.getPhoneNumber());
+        replica.update("INSERT INTO providers (id, first_name, last_name, email, phone_number, password_hash, " +
+                        "specialization, license_number, years_of_experience, is_active) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, TRUE)",
+                provider.getId(), provider.getFirstName(), provider.getLastName(), provider.getEmail(),
+                provider.getPhoneNumber(), provider.getPasswordHash(), provider.getSpecialization(),
+                provider.getLicenseNumber());
+        UUID id = UUID.randomUUID();
+        replica.update("INSERT INTO appointments (id, patient_id, provider_id, appointment_mode, appointment_type, " +
+                        "appointment_date_time, duration_minutes, status, created_at) " +
+                        "VALUES (?, ?, ?, 'IN_PERSON', 'consultation', ?, 30, 'SCHEDULED', ?)",
+                id, patient.getId(), provider.getId(), LocalDateTime.now().plusDays(1), LocalDateTime.now());
+        return id;
+    }
+}
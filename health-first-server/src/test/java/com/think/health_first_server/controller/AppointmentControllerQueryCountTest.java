@@ -0,0 +1,156 @@
+package com.think.health_first_server.controller;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.config.QueryCountingInspector;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.repo.AppointmentRepository;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Counted per thread: the session factory statistics also include the statements of the scheduled jobs
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.think.health_first_server.controller.AppointmentControllerQueryCountTest$RecordingInspector"
+})
+@AutoConfigureMockMvc
+class AppointmentControllerQueryCountTest {
+
+    private static final int APPOINTMENTS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private Patient patient;
+    private Provider provider;
+    private Appointment appointment;
+
+    @BeforeEach
+    void setUp() {
+        patient = patientRepository.save(TestData.patient("Jane", "Doe"));
+
+        provider = providerRepository.save(TestData.provider("John", "Smith"));
+
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            Appointment entity = TestData.appointment(patient, provider, LocalDateTime.now().plusDays(1).plusHours(i));
+            appointment = appointmentRepository.save(entity);
+        }
+
+        RecordingInspector.STATEMENTS.get().clear();
+    }
+
+    @Test
+    void listingAllAppointmentsIssuesOneStatement() throws Exception {
+        mockMvc.perform(get("/api/v1/appointments"))
+                .andExpect(status().isOk());
+
+        assertThat(statements()).hasSize(1);
+    }
+
+    @Test
+    void listingByPatientIssuesOneStatement() throws Exception {
+        mockMvc.perform(get("/api/v1/appointments/patient/{id}", patient.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(APPOINTMENTS))
+                .andExpect(jsonPath("$.data[0].patientName").value("Jane Doe"));
+
+        assertThat(statements()).hasSize(1);
+    }
+
+    @Test
+    void listingByProviderIssuesOneStatement() throws Exception {
+        mockMvc.perform(get("/api/v1/appointments/provider/{id}", provider.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(APPOINTMENTS))
+                .andExpect(jsonPath("$.data[0].providerName").value("John Smith"));
+
+        assertThat(statements()).hasSize(1);
+    }
+
+    @Test
+    void fetchingOneAppointmentIssuesOneStatement() throws Exception {
+        mockMvc.perform(get("/api/v1/appointments/{id}", appointment.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(appointment.getId().toString()));
+
+        assertThat(statements()).hasSize(1);
+    }
+
+    @Test
+    void revalidatingAnUnchangedListingIssuesNoStatement() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/appointments/provider/{id}", provider.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+        RecordingInspector.STATEMENTS.get().clear();
+
+        mockMvc.perform(get("/api/v1/appointments/provider/{id}", provider.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertThat(statements()).isEmpty();
+
+        mockMvc.perform(put("/api/v1/appointments/{id}/status", appointment.getId())
+                        .param("status", "CONFIRMED"))
+                .andExpect(status().isOk());
+
+        String changed = mockMvc.perform(get("/api/v1/appointments/provider/{id}", provider.getId())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(changed).isNotEqualTo(etag);
+    }
+
+    @Test
+    void updatingStatusDoesNotLazyLoadPatientOrProvider() throws Exception {
+        mockMvc.perform(put("/api/v1/appointments/{id}/status", appointment.getId())
+                        .param("status", "CONFIRMED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.patientName").value("Jane Doe"));
+
+        // One fetch-joined select, the update and the insert of the status notification into the outbox
+        assertThat(statements()).hasSize(3);
+    }
+
+    // The outbox id sequence is read once per 50 ids, so whether a request reads it depends on the tests before it
+    private static List<String> statements() {
+        return RecordingInspector.STATEMENTS.get().stream()
+                .filter(sql -> !sql.contains("next value for"))
+                .toList();
+    }
+
+    /** Keeps the statements prepared on the test thread, which MockMvc also serves the request on. */
+    public static class RecordingInspector extends QueryCountingInspector {
+        static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.get().add(sql);
+            return super.inspect(sql);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.think.health_first_server.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.repo.AppointmentRepository;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Its own database, so the export holds exactly the rows saved here
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export;DB_CLOSE_DELAY=-1",
+        "appointments.export.fetch-size=2",
+        "appointments.export.flush-interval=3"
+})
+@AutoConfigureMockMvc
+class AppointmentExportTest {
+
+    private static final int APPOINTMENTS = 7;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Test
+    void exportWritesOneJsonObjectPerLine() throws Exception {
+        Set<String> saved = new HashSet<>();
+        for (Appointment appointment : appointmentRepository.saveAll(appointments())) {
+            saved.add(appointment.getId().toString());
+        }
+
+        byte[] body = mockMvc.perform(get("/api/v1/appointments/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        String ndjson = new String(body, StandardCharsets.UTF_8);
+        assertThat(ndjson).endsWith("\n");
+        List<String> lines = ndjson.lines().toList();
+        assertThat(lines).hasSize(APPOINTMENTS);
+        Set<String> exported = new HashSet<>();
+        for (String line : lines) {
+            assertThat(line).startsWith("{").endsWith("}");
+            JsonNode row = objectMapper.readTree(line);
+            assertThat(row.get("patientName").asText()).isEqualTo("Export Patient");
+            exported.add(row.get("id").asText());
+        }
+        assertThat(exported).isEqualTo(saved);
+    }
+
+    private List<Appointment> appointments() {
+        Patient patient = patientRepository.save(TestData.patient("Export", "Patient"));
+
+        Provider provider = providerRepository.save(TestData.provider("Export", "Provider"));
+
+        List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            Appointment appointment = TestData.appointment(patient, provider, LocalDateTime.now().plusDays(1).plusHours(i));
+            appointments.add(appointment);
+        }
+        return appointments;
+    }
+}
@@ -0,0 +1,101 @@
+package com.think.health_first_server.controller;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dto.AppointmentRequest;
+import com.think.health_first_server.dto.ProviderAvailabilityRequest;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import com.think.health_first_server.service.AppointmentService;
+import com.think.health_first_server.service.ProviderAvailabilityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AvailabilityStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private ProviderAvailabilityService availabilityService;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Test
+    void bookingPushesTheTakenSlotToProviderAndMatchingSearchSubscribers() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Patient patient = patientRepository.save(TestData.patient("Stream", "Patient"));
+
+        Provider provider = TestData.provider("Stream", "Provider");
+        provider.setSpecialization("Stream-" + suffix);
+        provider = providerRepository.save(provider);
+
+        LocalDate day = LocalDate.now().plusDays(1);
+        ProviderAvailabilityRequest availability = new ProviderAvailabilityRequest();
+        availability.setProviderId(provider.getId());
+        availability.setDate(day);
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(11, 0));
+        availability.setTimezone("UTC");
+        availability.setSlotDuration(30);
+        availability.setMaxAppointmentsPerSlot(1);
+        availability.setLocationType("clinic");
+        availabilityService.createAvailability(availability);
+
+        MockHttpServletResponse providerStream = subscribe(
+                "/api/v1/provider/availability/provider/" + provider.getId() + "/stream");
+        MockHttpServletResponse matchingStream = subscribe(
+                "/api/v1/provider/availability/search/stream?specialization=stream-" + suffix);
+        MockHttpServletResponse otherStream = subscribe(
+                "/api/v1/provider/availability/search/stream?specialization=other-" + suffix);
+
+        AppointmentRequest booking = new AppointmentRequest();
+        booking.setPatientId(patient.getId());
+        booking.setProviderId(provider.getId());
+        booking.setAppointmentMode(Appointment.AppointmentMode.IN_PERSON);
+        booking.setAppointmentType("consultation");
+        booking.setAppointmentDateTime(day.atTime(9, 30));
+        appointmentService.createAppointment(booking);
+
+        String providerEvents = awaitEvent(providerStream);
+        assertThat(providerEvents).contains("event:slots", provider.getId().toString(), "\"freeCapacity\":0");
+        assertThat(awaitEvent(matchingStream)).contains("event:slots", "\"freeCapacity\":0");
+        assertThat(otherStream.getContentAsString()).doesNotContain("event:");
+    }
+
+    private MockHttpServletResponse subscribe(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static String awaitEvent(MockHttpServletResponse response) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        // Frames are written by a sender thread, so wait for the blank line that ends the event
+        while (!(response.getContentAsString().contains("event:") && response.getContentAsString().endsWith("\n\n"))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        return response.getContentAsString();
+    }
+}
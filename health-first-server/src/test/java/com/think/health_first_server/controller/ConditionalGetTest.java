@@ -0,0 +1,91 @@
+package com.think.health_first_server.controller;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.repo.ProviderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+    private static final String AVAILABILITY = "/api/v1/provider/availability";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Test
+    void notFoundResponsesCarryNoEtag() throws Exception {
+        mockMvc.perform(get("/api/v1/appointments/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+        mockMvc.perform(get(AVAILABILITY + "/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void slotsAreRevalidatedUntilTheAvailabilityChanges() throws Exception {
+        UUID providerId = saveProvider().getId();
+        String created = mockMvc.perform(post(AVAILABILITY).contentType(MediaType.APPLICATION_JSON)
+                        .content(availabilityJson(providerId)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String id = created.replaceAll(".*\"availability_id\":\"([^\"]+)\".*", "$1");
+
+        String etag = mockMvc.perform(slots(providerId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(slots(providerId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(delete(AVAILABILITY + "/{id}", id))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(slots(providerId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    private static MockHttpServletRequestBuilder slots(UUID providerId) {
+        return get(AVAILABILITY + "/provider/{providerId}/slots", providerId)
+                .param("from", "2030-01-07")
+                .param("to", "2030-01-07");
+    }
+
+    private static String availabilityJson(UUID providerId) {
+        return "{\"providerId\":\"" + providerId + "\",\"date\":\"2030-01-07\",\"startTime\":\"09:00\","
+                + "\"endTime\":\"12:00\",\"slotDuration\":30}";
+    }
+
+    private Provider saveProvider() {
+        Provider provider = TestData.provider("Etag", "Provider");
+        provider.setSpecialization("General");
+        return providerRepository.save(provider);
+    }
+}
@@ -0,0 +1,161 @@
+package com.think.health_first_server.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dto.AppointmentRequest;
+import com.think.health_first_server.repo.AppointmentRepository;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class IdempotentBookingTest {
+
+    private static final int DUPLICATES = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private AppointmentRequest request;
+
+    @BeforeEach
+    void setUp() {
+        Patient patient = patientRepository.save(TestData.patient("Retry", "Patient"));
+
+        Provider provider = providerRepository.save(TestData.provider("Retry", "Provider"));
+
+        request = new AppointmentRequest();
+        request.setPatientId(patient.getId());
+        request.setProviderId(provider.getId());
+        request.setAppointmentMode(Appointment.AppointmentMode.IN_PERSON);
+        request.setAppointmentType("consultation");
+        request.setAppointmentDateTime(LocalDate.now().plusDays(1).atTime(9, 0));
+    }
+
+    @Test
+    void retryGetsTheOriginalResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        MockHttpServletResponse first = mockMvc.perform(book(key, request))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn().getResponse();
+
+        MockHttpServletResponse retry = mockMvc.perform(book(key, request))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse();
+
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(appointmentRepository.findResponsesByPatientId(request.getPatientId())).hasSize(1);
+    }
+
+    @Test
+    void keyCannotBeReusedForAnotherRequest() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(book(key, request))
+                .andExpect(status().isCreated());
+
+        request.setAppointmentDateTime(request.getAppointmentDateTime().plusHours(2));
+        mockMvc.perform(book(key, request))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.success").value(false));
+        assertThat(appointmentRepository.findResponsesByPatientId(request.getPatientId())).hasSize(1);
+    }
+
+    @Test
+    void anonymousCallersAtDifferentAddressesDoNotShareKeys() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(book(key, request, "10.0.0.1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"));
+
+        request.setAppointmentDateTime(request.getAppointmentDateTime().plusHours(2));
+        mockMvc.perform(book(key, request, "10.0.0.2"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"));
+        assertThat(appointmentRepository.findResponsesByPatientId(request.getPatientId())).hasSize(2);
+    }
+
+    @Test
+    void concurrentDuplicatesBookOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < DUPLICATES; i++) {
+            responses.add(executor.submit(() -> {
+                start.await();
+                return mockMvc.perform(book(key, request)).andReturn().getResponse();
+            }));
+        }
+        start.countDown();
+
+        String body = null;
+        int executed = 0;
+        for (Future<MockHttpServletResponse> future : responses) {
+            MockHttpServletResponse response = future.get();
+            assertThat(response.getStatus()).isEqualTo(201);
+            if ("false".equals(response.getHeader("Idempotent-Replayed"))) {
+                executed++;
+            }
+            if (body == null) {
+                body = response.getContentAsString();
+            }
+            assertThat(response.getContentAsString()).isEqualTo(body);
+        }
+        executor.shutdown();
+
+        assertThat(executed).isEqualTo(1);
+        assertThat(appointmentRepository.findResponsesByPatientId(request.getPatientId())).hasSize(1);
+    }
+
+    private RequestBuilder book(String key, AppointmentRequest body) throws Exception {
+        return book(key, body, "127.0.0.1");
+    }
+
+    private RequestBuilder book(String key, AppointmentRequest body, String remoteAddress) throws Exception {
+        return post("/api/v1/appointments/book")
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body))
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddress);
+                    return request;
+                });
+    }
+}
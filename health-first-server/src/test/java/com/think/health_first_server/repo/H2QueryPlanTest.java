@@ -0,0 +1,25 @@
+package com.think.health_first_server.repo;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs against the schema the application migrated at startup
+@SpringBootTest
+class H2QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("com.think.health_first_server.repo.RepositoryQueryPlans#queries")
+    void repositoryQueryUsesAnIndex(String query, String sql) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+
+        assertThat(plan).as(query).doesNotContain("tableScan");
+    }
+}
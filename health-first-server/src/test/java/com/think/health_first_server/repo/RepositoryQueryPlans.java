@@ -0,0 +1,132 @@
+package com.think.health_first_server.repo;
+
+import org.junit.jupiter.params.provider.Arguments;
+
+import java.util.stream.Stream;
+
+/**
+ * The SQL the filtered repository queries run, with literals in place of the bind parameters so both databases can
+ * plan them. The full listings (findAllResponses, findAllIds, findAllEmails, ...) read every row by design and are
+ * left out, as are the id listings that warm the Bloom filters. Keep in step with the @Query definitions.
+ */
+final class RepositoryQueryPlans {
+
+    private static final String PROVIDER = "CAST('6f1c2d3e-4b5a-4c7d-8e9f-0a1b2c3d4e5f' AS UUID)";
+    private static final String PATIENT = "CAST('0d9e8f7a-6b5c-4d3e-2f1a-0b9c8d7e6f5a' AS UUID)";
+    private static final String APPOINTMENT = "CAST('1a2b3c4d-5e6f-4a7b-8c9d-0e1f2a3b4c5d' AS UUID)";
+    private static final String FROM = "TIMESTAMP '2030-01-07 00:00:00'";
+    private static final String TO = "TIMESTAMP '2030-01-08 00:00:00'";
+
+    private static final String RESPONSE_PROJECTION = "SELECT a.id, pa.id, pa.first_name, pa.last_name, pr.id, " +
+            "pr.first_name, pr.last_name, a.appointment_mode, a.appointment_type, a.estimated_amount, " +
+            "a.appointment_date_time, a.duration_minutes, a.reason_for_visit, a.status, a.created_at, a.updated_at " +
+            "FROM appointments a JOIN patients pa ON pa.id = a.patient_id JOIN providers pr ON pr.id = a.provider_id ";
+
+    private static final String ARCHIVE_RESPONSE_PROJECTION = "SELECT a.*, pa.first_name, pa.last_name, " +
+            "pr.first_name, pr.last_name FROM appointments_archive a JOIN patients pa ON pa.id = a.patient_id " +
+            "JOIN providers pr ON pr.id = a.provider_id ";
+
+    private static final String RULES_IN_WINDOW = "a.date <= DATE '2030-01-31' AND (a.date >= DATE '2030-01-01' " +
+            "OR (a.is_recurring = TRUE AND (a.recurrence_end_date IS NULL OR a.recurrence_end_date >= DATE '2030-01-01')))";
+
+    private RepositoryQueryPlans() {
+    }
+
+    static Stream<Arguments> queries() {
+        return Stream.of(
+                Arguments.of("AppointmentRepository.findAgenda",
+                        "SELECT a.id, a.appointment_date_time, a.duration_minutes, pa.id, pa.first_name, pa.last_name, " +
+                        "a.appointment_mode, a.appointment_type, a.status FROM appointments a " +
+                        "JOIN patients pa ON pa.id = a.patient_id WHERE a.provider_id = " + PROVIDER +
+                        " AND a.appointment_date_time >= " + FROM + " AND a.appointment_date_time < " + TO +
+                        " ORDER BY a.appointment_date_time"),
+                Arguments.of("AppointmentRepository.findByPatientId",
+                        "SELECT * FROM appointments a WHERE a.patient_id = " + PATIENT),
+                Arguments.of("AppointmentRepository.findByProviderId",
+                        "SELECT * FROM appointments a WHERE a.provider_id = " + PROVIDER),
+                Arguments.of("AppointmentRepository.findByProviderAndTimeRange",
+                        "SELECT * FROM appointments a WHERE a.provider_id = " + PROVIDER +
+                        " AND a.appointment_date_time BETWEEN " + FROM + " AND " + TO),
+                Arguments.of("AppointmentRepository.countConflictingAppointments",
+                        "SELECT COUNT(a.id) FROM appointments a WHERE a.provider_id = " + PROVIDER +
+                        " AND a.appointment_date_time = " + FROM + " AND a.status NOT IN ('CANCELLED')"),
+                Arguments.of("AppointmentRepository.findResponsesByPatientId",
+                        RESPONSE_PROJECTION + "WHERE pa.id = " + PATIENT + " ORDER BY a.appointment_date_time"),
+                Arguments.of("AppointmentRepository.findResponsesByProviderId",
+                        RESPONSE_PROJECTION + "WHERE pr.id = " + PROVIDER + " ORDER BY a.appointment_date_time"),
+                Arguments.of("AppointmentRepository.findResponseById",
+                        RESPONSE_PROJECTION + "WHERE a.id = " + APPOINTMENT),
+                Arguments.of("AppointmentRepository.findWithPatientAndProviderById",
+                        "SELECT * FROM appointments a JOIN patients pa ON pa.id = a.patient_id " +
+                        "JOIN providers pr ON pr.id = a.provider_id WHERE a.id = " + APPOINTMENT),
+                Arguments.of("AppointmentRepository.findActiveSlotsFrom",
+                        "SELECT a.id, a.provider_id, a.appointment_date_time, a.duration_minutes FROM appointments a " +
+                        "WHERE a.appointment_date_time >= " + FROM + " AND a.status NOT IN ('CANCELLED')"),
+                Arguments.of("AppointmentRepository.findArchivable",
+                        "SELECT a.id, a.patient_id, a.provider_id FROM appointments a " +
+                        "WHERE a.status IN ('COMPLETED', 'CANCELLED', 'NO_SHOW') AND a.appointment_date_time < " + FROM +
+                        " ORDER BY a.appointment_date_time FETCH FIRST 500 ROWS ONLY"),
+                Arguments.of("AppointmentRepository.deleteArchived",
+                        "DELETE FROM appointments WHERE id IN (" + APPOINTMENT + ") " +
+                        "AND status IN ('COMPLETED', 'CANCELLED', 'NO_SHOW') AND appointment_date_time < " + FROM),
+                Arguments.of("ArchivedAppointmentRepository.copyFromHot",
+                        "INSERT INTO appointments_archive SELECT a.*, " + TO + " FROM appointments a " +
+                        "WHERE a.id IN (" + APPOINTMENT + ") AND a.status IN ('COMPLETED', 'CANCELLED', 'NO_SHOW') " +
+                        "AND a.appointment_date_time < " + FROM),
+                Arguments.of("ArchivedAppointmentRepository.findResponsesByPatientId",
+                        ARCHIVE_RESPONSE_PROJECTION + "WHERE a.patient_id = " + PATIENT +
+                        " ORDER BY a.appointment_date_time"),
+                Arguments.of("ArchivedAppointmentRepository.findResponsesByProviderId",
+                        ARCHIVE_RESPONSE_PROJECTION + "WHERE a.provider_id = " + PROVIDER +
+                        " ORDER BY a.appointment_date_time"),
+                Arguments.of("ArchivedAppointmentRepository.findResponseById",
+                        ARCHIVE_RESPONSE_PROJECTION + "WHERE a.id = " + APPOINTMENT),
+                Arguments.of("ArchivedAppointmentRepository.findAgenda",
+                        "SELECT a.id, a.appointment_date_time, pa.first_name FROM appointments_archive a " +
+                        "JOIN patients pa ON pa.id = a.patient_id WHERE a.provider_id = " + PROVIDER +
+                        " AND a.appointment_date_time >= " + FROM + " AND a.appointment_date_time < " + TO +
+                        " ORDER BY a.appointment_date_time"),
+                Arguments.of("ProviderAvailabilityRepository.findRulesInWindow",
+                        "SELECT * FROM provider_availability a WHERE a.provider_id = " + PROVIDER + " AND " +
+                        RULES_IN_WINDOW),
+                Arguments.of("ProviderAvailabilityRepository.findAllRulesInWindow",
+                        "SELECT * FROM provider_availability a JOIN providers pr ON pr.id = a.provider_id WHERE " +
+                        RULES_IN_WINDOW),
+                Arguments.of("PatientRepository.findByEmail",
+                        "SELECT * FROM patients p WHERE p.email = 'jane@example.com'"),
+                Arguments.of("PatientRepository.existsByPhoneNumber",
+                        "SELECT p.id FROM patients p WHERE p.phone_number = '+15550100' FETCH FIRST 1 ROWS ONLY"),
+                Arguments.of("PatientRepository.updatePasswordHash",
+                        "UPDATE patients SET password_hash = 'new' WHERE id = " + PATIENT + " AND password_hash = 'old'"),
+                Arguments.of("Patient.medicalHistory",
+                        "SELECT medical_history FROM patient_medical_history WHERE patient_id = " + PATIENT),
+                Arguments.of("ProviderRepository.findByEmail",
+                        "SELECT * FROM providers p WHERE p.email = 'dr@example.com'"),
+                Arguments.of("ProviderRepository.existsByPhoneNumber",
+                        "SELECT p.id FROM providers p WHERE p.phone_number = '+15550100' FETCH FIRST 1 ROWS ONLY"),
+                Arguments.of("ProviderRepository.existsByLicenseNumber",
+                        "SELECT p.id FROM providers p WHERE p.license_number = 'LIC123' FETCH FIRST 1 ROWS ONLY"),
+                Arguments.of("ProviderRepository.updatePasswordHash",
+                        "UPDATE providers SET password_hash = 'new' WHERE id = " + PROVIDER + " AND password_hash = 'old'"),
+                Arguments.of("OutboxMessageRepository.findDue",
+                        "SELECT * FROM outbox_messages m WHERE m.status = 'PENDING' AND m.next_attempt_at <= " + TO +
+                        " AND m.id > 0 ORDER BY m.id FETCH FIRST 100 ROWS ONLY"),
+                Arguments.of("OutboxMessageRepository.findOldestWaiting",
+                        "SELECT m.recipient, MIN(m.id) FROM outbox_messages m WHERE m.status = 'PENDING' " +
+                        "AND m.next_attempt_at > " + FROM + " AND m.recipient IN ('a@example.com', 'b@example.com') " +
+                        "GROUP BY m.recipient"),
+                Arguments.of("OutboxMessageRepository.markSent",
+                        "UPDATE outbox_messages SET status = 'SENT', sent_at = " + TO + ", attempts = attempts + 1 " +
+                        "WHERE id IN (1, 2, 3)"),
+                Arguments.of("OutboxMessageRepository.markFailedAttempt",
+                        "UPDATE outbox_messages SET status = 'PENDING', attempts = attempts + 1, next_attempt_at = " +
+                        TO + ", last_error = 'timeout' WHERE id = 1"),
+                Arguments.of("OutboxMessageRepository.deleteSentBefore",
+                        "DELETE FROM outbox_messages WHERE status = 'SENT' AND sent_at < " + FROM),
+                Arguments.of("IdempotencyRecordRepository.findSnapshot",
+                        "SELECT * FROM idempotency_keys r WHERE r.id = 'anonymous:key'"),
+                Arguments.of("IdempotencyRecordRepository.deleteExpired",
+                        "DELETE FROM idempotency_keys WHERE expires_at < " + FROM)
+        );
+    }
+}
@@ -0,0 +1,61 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.repo.AppointmentRepository;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// An empty archive of its own and filters sized for one id, so the ids of one chunk overflow them mid-archive
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive-reload;DB_CLOSE_DELAY=-1",
+        "appointments.archive.bloom.expected-insertions=1"
+})
+class AppointmentArchiveBloomReloadTest {
+
+    private static final int PAIRS = 4;
+
+    @Autowired
+    private AppointmentArchiveService archiveService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Test
+    void idsOfTheChunkBeingMovedSurviveAReload() {
+        List<UUID> patients = new ArrayList<>();
+        List<UUID> providers = new ArrayList<>();
+        LocalDateTime longAgo = archiveService.cutoff().minusDays(30).withHour(10);
+        for (int i = 0; i < PAIRS; i++) {
+            Patient patient = patientRepository.save(TestData.patient("Reload", "Patient"));
+
+            Provider provider = providerRepository.save(TestData.provider("Reload", "Provider"));
+
+            Appointment appointment = TestData.appointment(patient, provider, longAgo.plusHours(i));
+            appointment.setStatus(Appointment.AppointmentStatus.COMPLETED);
+            appointmentRepository.save(appointment);
+            patients.add(patient.getId());
+            providers.add(provider.getId());
+        }
+
+        assertThat(archiveService.archiveAged()).isEqualTo(PAIRS);
+
+        assertThat(patients).allMatch(archiveService::mayHaveArchivedForPatient);
+        assertThat(providers).allMatch(archiveService::mayHaveArchivedForProvider);
+    }
+}
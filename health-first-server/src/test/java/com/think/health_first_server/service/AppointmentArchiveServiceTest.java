@@ -0,0 +1,76 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dto.AgendaEntry;
+import com.think.health_first_server.dto.AppointmentResponse;
+import com.think.health_first_server.repo.AppointmentRepository;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class AppointmentArchiveServiceTest {
+
+    @Autowired
+    private AppointmentArchiveService archiveService;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private ProviderAgendaService agendaService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    @Test
+    void agedFinalAppointmentsMoveToTheArchiveAndStayReadable() {
+        Patient patient = patientRepository.save(TestData.patient("Archive", "Patient"));
+
+        Provider provider = providerRepository.save(TestData.provider("Archive", "Provider"));
+
+        LocalDateTime longAgo = archiveService.cutoff().minusDays(30).withHour(10);
+        Appointment completed = save(patient, provider, longAgo, Appointment.AppointmentStatus.COMPLETED);
+        Appointment stillOpen = save(patient, provider, longAgo.plusHours(1), Appointment.AppointmentStatus.SCHEDULED);
+        Appointment recent = save(patient, provider, LocalDateTime.now().minusDays(2),
+                Appointment.AppointmentStatus.CANCELLED);
+
+        assertThat(archiveService.archiveAged()).isPositive();
+
+        // Only the aged final one left the hot table
+        assertThat(appointmentRepository.existsById(completed.getId())).isFalse();
+        assertThat(appointmentRepository.existsById(stillOpen.getId())).isTrue();
+        assertThat(appointmentRepository.existsById(recent.getId())).isTrue();
+
+        assertThat(appointmentService.getAppointmentsByPatient(patient.getId()))
+                .extracting(AppointmentResponse::getId)
+                .containsExactly(completed.getId(), stillOpen.getId(), recent.getId());
+        assertThat(appointmentService.getAppointmentsByProvider(provider.getId())).hasSize(3);
+        assertThat(appointmentService.getAppointmentById(completed.getId()).getStatus())
+                .isEqualTo(Appointment.AppointmentStatus.COMPLETED);
+        assertThat(agendaService.getAgenda(provider.getId(), longAgo.toLocalDate()))
+                .extracting(AgendaEntry::getAppointmentId)
+                .containsExactly(completed.getId(), stillOpen.getId());
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () ->
+                appointmentService.updateAppointmentStatus(completed.getId(), Appointment.AppointmentStatus.CONFIRMED));
+        assertThat(error.getMessage()).isEqualTo("Archived appointments cannot be changed");
+    }
+
+    private Appointment save(Patient patient, Provider provider, LocalDateTime at, Appointment.AppointmentStatus status) {
+        Appointment appointment = TestData.appointment(patient, provider, at);
+        appointment.setStatus(status);
+        return appointmentRepository.save(appointment);
+    }
+}
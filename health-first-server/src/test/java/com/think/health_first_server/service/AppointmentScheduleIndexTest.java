@@ -0,0 +1,114 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.repo.AppointmentRepository;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AppointmentScheduleIndexTest {
+
+    private static final LocalDateTime NINE = LocalDate.now().plusDays(3).atTime(9, 0);
+
+    @Autowired
+    private AppointmentScheduleIndex scheduleIndex;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+
+    private Patient patient;
+    private Provider provider;
+
+    @BeforeEach
+    void setUp() {
+        patient = patientRepository.save(TestData.patient("Index", "Patient"));
+
+        provider = TestData.provider("Index", "Provider");
+        provider.setSpecialization("General");
+        provider = providerRepository.save(provider);
+    }
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        scheduleIndex.add(booking(NINE, 30));
+
+        assertThat(scheduleIndex.hasConflict(provider.getId(), NINE.minusMinutes(30), 30)).isFalse();
+        assertThat(scheduleIndex.hasConflict(provider.getId(), NINE.plusMinutes(30), 30)).isFalse();
+        assertThat(scheduleIndex.hasConflict(provider.getId(), NINE.plusMinutes(29), 30)).isTrue();
+        assertThat(scheduleIndex.hasConflict(provider.getId(), NINE.minusMinutes(29), 30)).isTrue();
+    }
+
+    @Test
+    void longAppointmentOverlapsLaterShortOnes() {
+        scheduleIndex.add(booking(NINE, 180));
+        scheduleIndex.add(booking(NINE.plusHours(1), 15));
+
+        // Starts well after the long one but still inside it
+        assertThat(scheduleIndex.countOverlapping(provider.getId(), NINE.plusHours(2), 15)).isEqualTo(1);
+        assertThat(scheduleIndex.countOverlapping(provider.getId(), NINE.plusMinutes(65), 5)).isEqualTo(2);
+        assertThat(scheduleIndex.countOverlapping(provider.getId(), NINE.plusHours(3), 15)).isZero();
+        assertThat(scheduleIndex.countOverlapping(UUID.randomUUID(), NINE.plusHours(2), 15)).isZero();
+    }
+
+    @Test
+    void cancelledSlotCanBeRebooked() {
+        Appointment booked = booking(NINE, 30);
+        scheduleIndex.add(booked);
+        assertThat(scheduleIndex.hasConflict(provider.getId(), NINE, 30)).isTrue();
+
+        booked.setStatus(Appointment.AppointmentStatus.CANCELLED);
+        scheduleIndex.add(booked);
+        assertThat(scheduleIndex.hasConflict(provider.getId(), NINE, 30)).isFalse();
+
+        scheduleIndex.add(booking(NINE, 30));
+        assertThat(scheduleIndex.countOverlapping(provider.getId(), NINE, 30)).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildLoadsActiveAppointmentsFromYesterdayOn() {
+        LocalDateTime yesterday = LocalDate.now().minusDays(1).atTime(10, 0);
+        LocalDateTime lastWeek = LocalDate.now().minusDays(7).atTime(10, 0);
+        appointmentRepository.save(appointment(lastWeek, 30));
+        appointmentRepository.save(appointment(yesterday, 30));
+        appointmentRepository.save(appointment(NINE, 30));
+        Appointment cancelled = appointment(NINE.plusHours(1), 30);
+        cancelled.setStatus(Appointment.AppointmentStatus.CANCELLED);
+        appointmentRepository.save(cancelled);
+
+        scheduleIndex.rebuild();
+
+        assertThat(scheduleIndex.hasConflict(provider.getId(), lastWeek, 30)).isFalse();
+        assertThat(scheduleIndex.hasConflict(provider.getId(), yesterday, 30)).isTrue();
+        assertThat(scheduleIndex.hasConflict(provider.getId(), NINE, 30)).isTrue();
+        assertThat(scheduleIndex.hasConflict(provider.getId(), NINE.plusHours(1), 30)).isFalse();
+    }
+
+    private Appointment appointment(LocalDateTime start, int minutes) {
+        Appointment appointment = TestData.appointment(patient, provider, start);
+        appointment.setDurationMinutes(minutes);
+        return appointment;
+    }
+
+    // Kept in the index only, so the id a save would generate is assigned here
+    private Appointment booking(LocalDateTime start, int minutes) {
+        Appointment appointment = appointment(start, minutes);
+        appointment.setId(UUID.randomUUID());
+        return appointment;
+    }
+}
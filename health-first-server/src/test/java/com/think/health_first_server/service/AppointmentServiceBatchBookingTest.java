@@ -0,0 +1,152 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dto.AppointmentRequest;
+import com.think.health_first_server.dto.BatchBookingResult;
+import com.think.health_first_server.repo.AppointmentRepository;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AppointmentServiceBatchBookingTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Patient patient;
+    private Provider provider;
+    private LocalDateTime firstSlot;
+
+    @BeforeEach
+    void setUp() {
+        patient = patientRepository.save(TestData.patient("Batch", "Patient"));
+
+        provider = providerRepository.save(TestData.provider("Batch", "Provider"));
+
+        firstSlot = LocalDate.now().plusDays(2).atTime(8, 0);
+    }
+
+    @Test
+    void insertsTheWholeBatchWithJdbcBatching() {
+        List<AppointmentRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(request(patient.getId(), firstSlot.plusMinutes(30L * i)));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BatchBookingResult> results = appointmentService.createAppointments(requests);
+
+        assertThat(results).allMatch(BatchBookingResult::isSuccess);
+        assertThat(statistics.getEntityStatistics(Appointment.class.getName()).getInsertCount()).isEqualTo(20);
+        // UUIDs are assigned on persist, so the 20 inserts share one batched statement instead of one each,
+        // and so do their 20 outbox messages; the rest are lookups and the one overlap re-check against the table
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(12);
+    }
+
+    @Test
+    void reportsPerItemFailuresIncludingConflictsWithinTheBatch() {
+        List<AppointmentRequest> requests = List.of(
+                request(patient.getId(), firstSlot),
+                request(patient.getId(), firstSlot.plusMinutes(15)),
+                request(UUID.randomUUID(), firstSlot.plusHours(1)),
+                request(patient.getId(), LocalDateTime.now().minusDays(1)));
+
+        List<BatchBookingResult> results = appointmentService.createAppointments(requests);
+
+        assertThat(results).extracting(BatchBookingResult::isSuccess).containsExactly(true, false, false, false);
+        assertThat(results.get(1).getMessage()).isEqualTo("Provider has a conflicting appointment at this time");
+        assertThat(results.get(2).getMessage()).isEqualTo("Patient not found");
+        assertThat(results.get(3).getMessage()).isEqualTo("Appointment time cannot be in the past");
+    }
+
+    @Test
+    void anItemMissingRequiredFieldsFailsAloneAmongGoodItemsForTheSameProvider() {
+        AppointmentRequest noMode = request(patient.getId(), firstSlot.plusHours(1));
+        noMode.setAppointmentMode(null);
+        AppointmentRequest noType = request(patient.getId(), firstSlot.plusHours(2));
+        noType.setAppointmentType(" ");
+        List<AppointmentRequest> requests = List.of(
+                request(patient.getId(), firstSlot),
+                noMode,
+                noType,
+                request(patient.getId(), firstSlot.plusHours(3)));
+
+        List<BatchBookingResult> results = appointmentService.createAppointments(requests);
+
+        assertThat(results).extracting(BatchBookingResult::isSuccess).containsExactly(true, false, false, true);
+        assertThat(results.get(1).getMessage()).isEqualTo("Appointment mode is required");
+        assertThat(results.get(2).getMessage()).isEqualTo("Appointment type is required");
+    }
+
+    @Test
+    void bookingsTheScheduleIndexHasNotSeenStillConflict() {
+        // As if written by another instance: in the table, but not in this instance's index
+        appointmentRepository.save(TestData.appointment(patient, provider, firstSlot));
+
+        assertThrows(BookingConflictException.class,
+                () -> appointmentService.createAppointment(request(patient.getId(), firstSlot.plusMinutes(15))));
+        List<BatchBookingResult> results = appointmentService.createAppointments(List.of(
+                request(patient.getId(), firstSlot.minusMinutes(15)),
+                request(patient.getId(), firstSlot.plusMinutes(30))));
+
+        assertThat(results).extracting(BatchBookingResult::isSuccess).containsExactly(false, true);
+        assertThat(results.get(0).getMessage()).isEqualTo("Provider has a conflicting appointment at this time");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, -30, Appointment.MAX_DURATION_MINUTES + 1, Integer.MAX_VALUE})
+    void rejectsDurationsThatWouldCorruptTheSchedule(int durationMinutes) {
+        AppointmentRequest invalid = request(patient.getId(), firstSlot);
+        invalid.setDurationMinutes(durationMinutes);
+        String message = "Duration must be between 1 and " + Appointment.MAX_DURATION_MINUTES + " minutes";
+
+        IllegalArgumentException single = assertThrows(IllegalArgumentException.class,
+                () -> appointmentService.createAppointment(invalid));
+        List<BatchBookingResult> results = appointmentService.createAppointments(
+                List.of(invalid, request(patient.getId(), firstSlot)));
+
+        assertThat(single.getMessage()).isEqualTo(message);
+        assertThat(results).extracting(BatchBookingResult::isSuccess).containsExactly(false, true);
+        assertThat(results.get(0).getMessage()).isEqualTo(message);
+    }
+
+    private AppointmentRequest request(UUID patientId, LocalDateTime dateTime) {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setPatientId(patientId);
+        request.setProviderId(provider.getId());
+        request.setAppointmentMode(Appointment.AppointmentMode.VIDEO_CALL);
+        request.setAppointmentType("follow_up");
+        request.setAppointmentDateTime(dateTime);
+        return request;
+    }
+}
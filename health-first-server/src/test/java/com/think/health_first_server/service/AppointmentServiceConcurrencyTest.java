@@ -0,0 +1,166 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dao.ProviderAvailability;
+import com.think.health_first_server.dto.AppointmentRequest;
+import com.think.health_first_server.dto.AppointmentResponse;
+import com.think.health_first_server.repo.AppointmentRepository;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderAvailabilityRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class AppointmentServiceConcurrencyTest {
+
+    private static final int THREADS = 500;
+    private static final int SLOTS_PER_PROVIDER = 10;
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepository;
+
+    private Patient patient;
+    private LocalDateTime firstSlot;
+
+    @BeforeEach
+    void setUp() {
+        patient = patientRepository.save(TestData.patient("Stress", "Patient"));
+        firstSlot = LocalDate.now().plusDays(1).atTime(8, 0);
+    }
+
+    @Test
+    void concurrentBookingsNeverDoubleBookASlot() throws Exception {
+        List<Provider> providers = createProviders(5);
+        List<AppointmentRequest> slots = new ArrayList<>();
+        for (Provider provider : providers) {
+            for (int i = 0; i < SLOTS_PER_PROVIDER; i++) {
+                slots.add(request(provider.getId(), firstSlot.plusHours(i)));
+            }
+        }
+
+        Result result = bookConcurrently(i -> slots.get(i % slots.size()));
+
+        assertThat(result.booked()).isEqualTo(slots.size());
+        assertThat(result.conflicts()).isEqualTo(THREADS - slots.size());
+        assertThat(result.failures()).isZero();
+        for (Provider provider : providers) {
+            List<AppointmentResponse> booked = appointmentRepository.findResponsesByProviderId(provider.getId());
+            assertThat(booked).hasSize(SLOTS_PER_PROVIDER);
+            assertThat(booked.stream().map(AppointmentResponse::getAppointmentDateTime).collect(Collectors.toSet()))
+                    .hasSize(SLOTS_PER_PROVIDER);
+        }
+    }
+
+    @Test
+    void groupSlotAdmitsExactlyItsCapacity() throws Exception {
+        Provider provider = createProviders(1).get(0);
+        ProviderAvailability availability = new ProviderAvailability();
+        availability.setProvider(provider);
+        availability.setDate(firstSlot.toLocalDate());
+        availability.setStartTime(LocalTime.of(8, 0));
+        availability.setEndTime(LocalTime.of(9, 0));
+        availability.setMaxAppointmentsPerSlot(3);
+        availabilityRepository.save(availability);
+
+        Result result = bookConcurrently(i -> request(provider.getId(), firstSlot));
+
+        assertThat(result.booked()).isEqualTo(3);
+        assertThat(result.conflicts()).isEqualTo(THREADS - 3);
+        assertThat(appointmentRepository.findResponsesByProviderId(provider.getId())).hasSize(3);
+    }
+
+    @Test
+    void distinctSlotsAreAllBookedWhetherContendedOrSpreadAcrossProviders() throws Exception {
+        // Every thread gets its own slot, with one provider lock shared by all of them or spread over 50
+        for (int providerCount : new int[]{1, 50}) {
+            List<Provider> providers = createProviders(providerCount);
+            Result result = bookConcurrently(i -> request(providers.get(i % providerCount).getId(),
+                    firstSlot.plusMinutes((long) (i / providerCount) * Appointment.DEFAULT_DURATION_MINUTES)));
+
+            assertThat(result.booked()).isEqualTo(THREADS);
+            assertThat(result.failures()).isZero();
+            for (Provider provider : providers) {
+                assertThat(appointmentRepository.findResponsesByProviderId(provider.getId()))
+                        .hasSize(THREADS / providerCount);
+            }
+        }
+    }
+
+    private Result bookConcurrently(IntFunction<AppointmentRequest> requestFor) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < THREADS; i++) {
+            AppointmentRequest request = requestFor.apply(i);
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    appointmentService.createAppointment(request);
+                    booked.incrementAndGet();
+                } catch (BookingConflictException e) {
+                    conflicts.incrementAndGet();
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        return new Result(booked.get(), conflicts.get(), failures.get());
+    }
+
+    private List<Provider> createProviders(int count) {
+        List<Provider> providers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            providers.add(TestData.provider("Stress", "Provider" + i));
+        }
+        return providerRepository.saveAll(providers);
+    }
+
+    private AppointmentRequest request(UUID providerId, LocalDateTime dateTime) {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setPatientId(patient.getId());
+        request.setProviderId(providerId);
+        request.setAppointmentMode(Appointment.AppointmentMode.IN_PERSON);
+        request.setAppointmentType("consultation");
+        request.setAppointmentDateTime(dateTime);
+        return request;
+    }
+
+    private record Result(int booked, int conflicts, int failures) {
+    }
+}
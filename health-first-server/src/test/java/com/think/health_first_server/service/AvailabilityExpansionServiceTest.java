@@ -0,0 +1,141 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dao.ProviderAvailability;
+import com.think.health_first_server.repo.ProviderAvailabilityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AvailabilityExpansionServiceTest {
+
+    private final ProviderAvailabilityRepository repository = mock(ProviderAvailabilityRepository.class);
+    private final AvailabilityExpansionService service = new AvailabilityExpansionService(100);
+    private final UUID providerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "availabilityRepository", repository);
+    }
+
+    @ParameterizedTest(name = "{0} from {1} until {2}, window {3}..{4}")
+    @CsvSource(delimiter = '|', nullValues = "-", textBlock = """
+            # pattern | first      | end        | from       | to         | expected occurrences
+            -         | 2030-03-11 | -          | 2030-03-10 | 2030-03-12 | 2030-03-11
+            -         | 2030-03-09 | -          | 2030-03-10 | 2030-03-12 |
+            daily     | 2030-01-01 | -          | 2030-03-10 | 2030-03-12 | 2030-03-10 2030-03-11 2030-03-12
+            daily     | 2030-03-11 | -          | 2030-03-10 | 2030-03-12 | 2030-03-11 2030-03-12
+            daily     | 2030-03-20 | -          | 2030-03-10 | 2030-03-12 |
+            weekly    | 2030-01-07 | -          | 2030-02-01 | 2030-02-28 | 2030-02-04 2030-02-11 2030-02-18 2030-02-25
+            weekly    | 2030-01-07 | -          | 2030-02-05 | 2030-02-11 | 2030-02-11
+            monthly   | 2030-01-15 | -          | 2030-01-01 | 2030-04-30 | 2030-01-15 2030-02-15 2030-03-15 2030-04-15
+            monthly   | 2030-01-31 | -          | 2030-01-01 | 2030-04-30 | 2030-01-31 2030-02-28 2030-03-31 2030-04-30
+            monthly   | 2030-01-31 | -          | 2030-06-01 | 2030-08-31 | 2030-06-30 2030-07-31 2030-08-31
+            monthly   | 2028-01-29 | -          | 2028-02-01 | 2028-03-31 | 2028-02-29 2028-03-29
+            monthly   | 2030-01-30 | -          | 2030-02-01 | 2030-03-31 | 2030-02-28 2030-03-30
+            daily     | 2030-01-01 | 2030-03-11 | 2030-03-10 | 2030-03-20 | 2030-03-10 2030-03-11
+            weekly    | 2030-01-07 | 2030-02-10 | 2030-02-01 | 2030-02-28 | 2030-02-04
+            monthly   | 2030-01-31 | 2030-02-27 | 2030-01-01 | 2030-04-30 | 2030-01-31
+            daily     | 2030-01-01 | 2030-03-01 | 2030-03-10 | 2030-03-12 |
+            """)
+    void occurrences(String pattern, LocalDate first, LocalDate end, LocalDate from, LocalDate to, String expected) {
+        ProviderAvailability rule = rule(first, pattern);
+        rule.setRecurrenceEndDate(end);
+
+        List<LocalDate> days = service.expand(rule, from, to)
+                .map(slot -> slot.getStart().toLocalDate())
+                .toList();
+
+        assertThat(days).containsExactlyElementsOf(dates(expected));
+    }
+
+    @Test
+    void unavailableRulesYieldNoSlots() {
+        ProviderAvailability rule = rule(LocalDate.of(2030, 3, 11), null);
+        rule.setStatus("Blocked");
+
+        assertThat(service.expand(rule, rule.getDate(), rule.getDate())).isEmpty();
+    }
+
+    @Test
+    void slotsAreCutFromTheDayWithBreaks() {
+        ProviderAvailability rule = rule(LocalDate.of(2030, 3, 11), null);
+        rule.setEndTime(LocalTime.of(11, 0));
+        rule.setSlotDuration(30);
+        rule.setBreakDuration(15);
+
+        assertThat(service.expand(rule, rule.getDate(), rule.getDate()).map(slot -> slot.getStart().toLocalTime()))
+                .containsExactly(LocalTime.of(9, 0), LocalTime.of(9, 45), LocalTime.of(10, 30));
+    }
+
+    @Test
+    void streamSlotsKeepsOnlyDaysInsideTheRange() {
+        when(repository.findRulesInWindow(eq(providerId), any(), any()))
+                .thenReturn(List.of(rule(LocalDate.of(2030, 1, 1), "daily")));
+
+        // Wednesday to the Tuesday after: two cached weeks, trimmed at both ends
+        List<LocalDate> days = service.streamSlots(providerId, LocalDate.of(2030, 3, 13), LocalDate.of(2030, 3, 19))
+                .map(slot -> slot.getStart().toLocalDate())
+                .toList();
+
+        assertThat(days).containsExactlyElementsOf(
+                LocalDate.of(2030, 3, 13).datesUntil(LocalDate.of(2030, 3, 20)).toList());
+        verify(repository).findRulesInWindow(providerId, LocalDate.of(2030, 3, 11), LocalDate.of(2030, 3, 17));
+        verify(repository).findRulesInWindow(providerId, LocalDate.of(2030, 3, 18), LocalDate.of(2030, 3, 24));
+    }
+
+    @Test
+    void invalidateReloadsOnlyThatProvider() {
+        UUID otherProviderId = UUID.randomUUID();
+        when(repository.findRulesInWindow(any(), any(), any()))
+                .thenReturn(List.of(rule(LocalDate.of(2030, 1, 1), "daily")));
+        LocalDate monday = LocalDate.of(2030, 3, 11);
+
+        service.streamSlots(providerId, monday, monday).toList();
+        service.streamSlots(otherProviderId, monday, monday).toList();
+        service.streamSlots(providerId, monday, monday).toList();
+        verify(repository, times(1)).findRulesInWindow(eq(providerId), any(), any());
+
+        service.invalidate(providerId);
+        service.streamSlots(providerId, monday, monday).toList();
+        service.streamSlots(otherProviderId, monday, monday).toList();
+
+        verify(repository, times(2)).findRulesInWindow(eq(providerId), any(), any());
+        verify(repository, times(1)).findRulesInWindow(eq(otherProviderId), any(), any());
+    }
+
+    private ProviderAvailability rule(LocalDate first, String pattern) {
+        Provider provider = new Provider();
+        provider.setId(providerId);
+        ProviderAvailability rule = new ProviderAvailability();
+        rule.setId(UUID.randomUUID());
+        rule.setProvider(provider);
+        rule.setDate(first);
+        rule.setStartTime(LocalTime.of(9, 0));
+        rule.setEndTime(LocalTime.of(10, 0));
+        rule.setSlotDuration(60);
+        rule.setRecurring(pattern != null);
+        rule.setRecurrencePattern(pattern);
+        return rule;
+    }
+
+    private static List<LocalDate> dates(String expected) {
+        return expected == null ? List.of() : Arrays.stream(expected.split(" ")).map(LocalDate::parse).toList();
+    }
+}
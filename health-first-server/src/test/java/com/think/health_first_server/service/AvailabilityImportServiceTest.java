@@ -0,0 +1,73 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dto.AvailabilityImportResult;
+import com.think.health_first_server.repo.ProviderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "availability.import.chunk-size=2")
+class AvailabilityImportServiceTest {
+
+    @Autowired
+    private AvailabilityImportService importService;
+    @Autowired
+    private ProviderRepository providerRepository;
+    @SpyBean
+    private ProviderAvailabilityService availabilityService;
+
+    @Test
+    void onlyMalformedLinesAndRowsTheDatabaseRejectsFailWhileTheRestIsImported() throws Exception {
+        UUID imported = saveProvider().getId();
+        UUID partlyImported = saveProvider().getId();
+        UUID rejected = saveProvider().getId();
+        String ndjson = String.join("\n",
+                line(imported, "2030-01-07", null),
+                line(imported, "2030-01-08", null),
+                line(partlyImported, "2030-01-07", null),
+                line(rejected, "2030-01-08", "x".repeat(300)), // too long for the column, fails its chunk
+                "{\"providerId\": ");
+
+        AvailabilityImportResult result = importService.importNdjson(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(AvailabilityImportResult.LineError::getLine)
+                .containsExactlyInAnyOrder(4L, 5L);
+        assertThat(result.getErrors()).filteredOn(error -> error.getLine() == 5)
+                .singleElement()
+                .satisfies(error -> assertThat(error.getMessage()).startsWith("Malformed JSON"));
+        assertThat(result.getErrors()).filteredOn(error -> error.getLine() == 4)
+                .singleElement()
+                .satisfies(error -> assertThat(error.getMessage()).startsWith("Insert failed"));
+
+        verify(availabilityService).availabilityChanged(imported);
+        verify(availabilityService).availabilityChanged(partlyImported);
+        verify(availabilityService, never()).availabilityChanged(rejected);
+    }
+
+    private static String line(UUID providerId, String date, String notes) {
+        return "{\"providerId\":\"" + providerId + "\",\"date\":\"" + date + "\",\"startTime\":\"09:00\","
+                + "\"endTime\":\"12:00\",\"slotDuration\":30"
+                + (notes == null ? "" : ",\"notes\":\"" + notes + "\"") + "}";
+    }
+
+    private Provider saveProvider() {
+        Provider provider = TestData.provider("Import", "Provider");
+        provider.setSpecialization("General");
+        provider.setYearsOfExperience(5);
+        return providerRepository.save(provider);
+    }
+}
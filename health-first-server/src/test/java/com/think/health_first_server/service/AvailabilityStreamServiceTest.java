@@ -0,0 +1,117 @@
+package com.think.health_first_server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.think.health_first_server.dto.SlotSearchRequest;
+import com.think.health_first_server.event.OpenSlotsChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityStreamServiceTest {
+
+    private static final int BUFFER = 4;
+    private static final int EVENTS = 20;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Deque<RecordingEmitter> emitters = new ArrayDeque<>();
+    private final AvailabilityStreamService streamService = new AvailabilityStreamService(1000) {
+        @Override
+        SseEmitter newEmitter(long timeoutMillis) {
+            return emitters.removeFirst();
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(streamService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(streamService, "timeoutMillis", 60_000L);
+        ReflectionTestUtils.setField(streamService, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(streamService, "heartbeatMillis", 60_000L);
+        ReflectionTestUtils.setField(streamService, "subscriberBuffer", BUFFER);
+        ReflectionTestUtils.setField(streamService, "senderThreads", 2);
+        streamService.bindMetrics(meterRegistry);
+        streamService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.stop();
+    }
+
+    @Test
+    void aStalledSubscriberIsDisconnectedWithoutHoldingUpTheOthers() throws Exception {
+        CountDownLatch unstall = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(unstall);
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        emitters.add(stalled);
+        emitters.add(healthy);
+        streamService.subscribeSearch(new SlotSearchRequest());
+        streamService.subscribeSearch(new SlotSearchRequest());
+
+        // The healthy subscriber keeps up with each change while the stalled one falls a buffer behind
+        for (int i = 1; i <= EVENTS; i++) {
+            streamService.onOpenSlotsChanged(new OpenSlotsChangedEvent(UUID.randomUUID(), "Cardiology", null, null,
+                    null, true, List.of()));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (healthy.events.size() < i && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(healthy.events).hasSize(i);
+        }
+        assertThat(meterRegistry.get("availability.stream.subscribers").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("availability.stream.slow-subscribers").counter().count()).isEqualTo(1);
+
+        unstall.countDown();
+        assertThat(stalled.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stalled.events).hasSizeLessThanOrEqualTo(BUFFER + 1);
+    }
+
+    /** Keeps the data frames it is sent; with a latch, blocks on the first one like a client that stopped reading. */
+    private static final class RecordingEmitter extends SseEmitter {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch unstall;
+
+        RecordingEmitter(CountDownLatch unstall) {
+            this.unstall = unstall;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            String frame = builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .reduce("", String::concat);
+            if (!frame.contains("event:")) {
+                return;
+            }
+            if (unstall != null) {
+                try {
+                    unstall.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            events.add(frame);
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
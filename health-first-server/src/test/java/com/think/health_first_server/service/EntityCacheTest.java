@@ -0,0 +1,58 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.config.QueryCounts;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EntityCacheTest {
+
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void primaryKeyLookupsAreServedFromTheSecondLevelCache() {
+        Patient patient = TestData.patient("Cached", "Patient");
+        UUID patientId = patientRepository.save(patient).getId();
+
+        Provider provider = TestData.provider("Cached", "Provider");
+        UUID providerId = providerRepository.save(provider).getId();
+
+        patientRepository.findById(patientId);
+        providerRepository.findById(providerId);
+        statistics.clear();
+        QueryCounts.reset();
+
+        assertThat(patientRepository.findById(patientId)).isPresent();
+        assertThat(providerRepository.findById(providerId)).isPresent();
+
+        assertThat(statistics.getDomainDataRegionStatistics("patients").getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("providers").getHitCount()).isEqualTo(1);
+        assertThat(QueryCounts.count()).isZero();
+    }
+}
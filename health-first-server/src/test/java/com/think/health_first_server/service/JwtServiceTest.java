@@ -0,0 +1,113 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dao.Patient;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    static final String SECRET = "health-first-unit-test-signing-secret-0123456789";
+
+    private final JwtService jwtService = new JwtService(SECRET, 3_600_000, 1_800_000, 10);
+
+    @Test
+    void validTokenYieldsSubjectRoleAndExpiry() {
+        Patient patient = new Patient();
+        patient.setId(UUID.randomUUID());
+        patient.setEmail("jwt@example.com");
+
+        JwtService.VerifiedToken verified = jwtService.validateToken(jwtService.generateToken(patient));
+
+        assertThat(verified.subject()).isEqualTo(patient.getId().toString());
+        assertThat(verified.role()).isEqualTo("patient");
+        assertThat(verified.expiresAt()).isGreaterThan(System.currentTimeMillis());
+    }
+
+    @Test
+    void repeatValidationIsServedFromTheCache() {
+        String token = token("cached", System.currentTimeMillis() + 60_000);
+
+        assertThat(jwtService.validateToken(token)).isSameAs(jwtService.validateToken(token));
+    }
+
+    @Test
+    void newTokensAreStillCachedOnceTheCacheIsFullOfLiveOnes() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        for (int i = 0; i < 30; i++) {
+            jwtService.validateToken(token("filler-" + i, expiresAt));
+        }
+        String token = token("newest", expiresAt);
+
+        assertThat(jwtService.validateToken(token)).isSameAs(jwtService.validateToken(token));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = token("expired", System.currentTimeMillis() - 60_000);
+
+        assertThatThrownBy(() -> jwtService.validateToken(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceItExpires() throws InterruptedException {
+        // exp has second precision, so this expires within the next two seconds
+        long expiresAt = System.currentTimeMillis() + 1_500;
+        String token = token("short-lived", expiresAt);
+        assertThat(jwtService.validateToken(token).subject()).isEqualTo("short-lived");
+
+        Thread.sleep(Math.max(0, expiresAt - System.currentTimeMillis()) + 100);
+
+        assertThatThrownBy(() -> jwtService.validateToken(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void tamperedTokenIsRejectedEvenAfterTheOriginalWasCached() {
+        String token = token("alice", System.currentTimeMillis() + 60_000);
+        jwtService.validateToken(token);
+
+        assertThatThrownBy(() -> jwtService.validateToken(tampered(token, "mallory")))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        String foreign = Jwts.builder()
+                .setSubject("alice")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("some-other-signing-secret-0123456789abcdef".getBytes(
+                        StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThatThrownBy(() -> jwtService.validateToken(foreign)).isInstanceOf(SignatureException.class);
+    }
+
+    static String token(String subject, long expiresAt) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .claim("role", "patient")
+                .setExpiration(new Date(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /** Swaps the payload for one naming another subject and keeps the original signature. */
+    static String tampered(String token, String subject) {
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        String forged = payload.replaceFirst("\"sub\":\"[^\"]*\"", "\"sub\":\"" + subject + "\"");
+        return parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(forged.getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+    }
+}
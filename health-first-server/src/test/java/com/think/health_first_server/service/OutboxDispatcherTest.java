@@ -0,0 +1,152 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.OutboxMessage;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dto.AppointmentRequest;
+import com.think.health_first_server.dto.PatientRegisterRequest;
+import com.think.health_first_server.enums.Gender;
+import com.think.health_first_server.repo.OutboxMessageRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.IllegalTransactionStateException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// The scheduled run is pushed out of the way so each test drives the dispatcher itself, and the database is not
+// shared with the other test contexts, whose dispatchers would otherwise deliver these messages
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+        "notifications.dispatch.poll-interval-ms=3600000",
+        "notifications.dispatch.retry-base-ms=0"
+})
+class OutboxDispatcherTest {
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+    @Autowired
+    private RecordingSender sender;
+    @Autowired
+    private PatientService patientService;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private NotificationService notificationService;
+    @Autowired
+    private ProviderRepository providerRepository;
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+
+    @Test
+    void registrationAndBookingAreDeliveredAfterTheRequestInOrder() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        PatientRegisterRequest registration = new PatientRegisterRequest();
+        registration.setFirstName("Outbox");
+        registration.setLastName("Patient");
+        registration.setEmail("outbox." + suffix + "@example.com");
+        registration.setPhoneNumber("+1444" + suffix);
+        registration.setPassword("Outbox-Password-1");
+        registration.setConfirmPassword("Outbox-Password-1");
+        registration.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        registration.setGender(Gender.FEMALE);
+        Patient patient = patientService.register(registration);
+
+        Provider provider = providerRepository.save(TestData.provider("Outbox", "Provider"));
+
+        AppointmentRequest booking = new AppointmentRequest();
+        booking.setPatientId(patient.getId());
+        booking.setProviderId(provider.getId());
+        booking.setAppointmentMode(Appointment.AppointmentMode.IN_PERSON);
+        booking.setAppointmentType("consultation");
+        booking.setAppointmentDateTime(LocalDate.now().plusDays(2).atTime(10, 0));
+        Appointment appointment = appointmentService.createAppointment(booking);
+        appointmentService.updateAppointmentStatus(appointment.getId(), Appointment.AppointmentStatus.CANCELLED);
+
+        // Nothing is sent on the request path
+        assertThat(sender.typesFor(patient.getEmail())).isEmpty();
+
+        dispatcher.drain();
+
+        assertThat(sender.typesFor(patient.getEmail()))
+                .containsExactly("PATIENT_VERIFICATION", "APPOINTMENT_BOOKED", "APPOINTMENT_CANCELLED");
+    }
+
+    @Test
+    void aFailedMessageHoldsBackNewerOnesForTheSameRecipientOnly() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        String flaky = "flaky." + suffix + "@example.com";
+        String healthy = "healthy." + suffix + "@example.com";
+        sender.failOnce(flaky);
+        outboxRepository.saveAll(List.of(message(flaky, "FIRST"), message(flaky, "SECOND"), message(healthy, "OTHER")));
+
+        dispatcher.drain();
+
+        assertThat(sender.typesFor(flaky)).isEmpty();
+        assertThat(sender.typesFor(healthy)).containsExactly("OTHER");
+
+        dispatcher.drain();
+
+        assertThat(sender.typesFor(flaky)).containsExactly("FIRST", "SECOND");
+    }
+
+    @Test
+    void notificationsCanOnlyBeWrittenInsideTheChangingTransaction() {
+        Patient patient = new Patient();
+        patient.setEmail("no-transaction@example.com");
+        assertThrows(IllegalTransactionStateException.class, () -> notificationService.patientRegistered(patient));
+    }
+
+    private static OutboxMessage message(String recipient, String type) {
+        OutboxMessage message = new OutboxMessage();
+        message.setRecipient(recipient);
+        message.setType(type);
+        message.setSubject(type);
+        message.setBody(type);
+        return message;
+    }
+
+    static class RecordingSender implements NotificationSender {
+        private final List<OutboxMessage> sent = new CopyOnWriteArrayList<>();
+        private final Set<String> failing = ConcurrentHashMap.newKeySet();
+
+        void failOnce(String recipient) {
+            failing.add(recipient);
+        }
+
+        List<String> typesFor(String recipient) {
+            return sent.stream().filter(m -> m.getRecipient().equals(recipient)).map(OutboxMessage::getType).toList();
+        }
+
+        @Override
+        public void send(OutboxMessage message) {
+            if (failing.remove(message.getRecipient())) {
+                throw new IllegalStateException("Mail server unavailable");
+            }
+            sent.add(message);
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        @Primary
+        RecordingSender recordingSender() {
+            return new RecordingSender();
+        }
+    }
+}
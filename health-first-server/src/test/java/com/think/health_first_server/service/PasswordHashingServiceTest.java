@@ -0,0 +1,108 @@
+package com.think.health_first_server.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private PasswordEncoder encoder;
+    private PasswordHashingService service;
+
+    @BeforeEach
+    void setUp() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        // Blocks on the "slow" password so the pool can be filled deterministically
+        encoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if ("slow".contentEquals(rawPassword)) {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return bcrypt.matches(rawPassword, encodedPassword);
+            }
+        };
+        service = newService(5000);
+    }
+
+    private PasswordHashingService newService(long timeoutMillis) {
+        PasswordHashingService hashing = new PasswordHashingService(1, 1, timeoutMillis);
+        ReflectionTestUtils.setField(hashing, "passwordEncoder", encoder);
+        hashing.detectCost();
+        return hashing;
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void hashesAndVerifiesOnThePool() {
+        String hash = service.encode("secret");
+        assertTrue(service.matches("secret", hash));
+        assertFalse(service.matches("wrong", hash));
+        assertFalse(service.matches("secret", null));
+    }
+
+    @Test
+    void rejectsWhenPoolAndQueueAreFull() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> service.encode("slow"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> service.encode("queued"));
+            while (service.getQueueDepth() < 1) {
+                Thread.sleep(5);
+            }
+            assertThrows(PasswordHashingBusyException.class, () -> service.encode("rejected"));
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            assertTrue(callers.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void givesUpWhenTheHashTakesLongerThanTheTimeout() {
+        PasswordHashingService impatient = newService(200);
+        try {
+            PasswordHashingBusyException e = assertThrows(PasswordHashingBusyException.class,
+                    () -> impatient.encode("slow"));
+            assertEquals("Password hashing did not finish within 200 ms", e.getMessage());
+        } finally {
+            impatient.shutdown();
+        }
+    }
+
+    @Test
+    void flagsHashesWithADifferentCost() {
+        assertEquals(4, service.getCurrentCost());
+        assertFalse(service.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(service.needsRehash(new BCryptPasswordEncoder(5).encode("secret")));
+        assertFalse(service.needsRehash("not-a-bcrypt-hash"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dto.AgendaEntry;
+import com.think.health_first_server.dto.AppointmentRequest;
+import com.think.health_first_server.repo.PatientRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProviderAgendaServiceTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private ProviderAgendaService agendaService;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private ProviderRepository providerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void agendaIsLoadedOnceThenPatchedFromBookingsAndStatusChanges() {
+        Patient patient = patientRepository.save(TestData.patient("Agenda", "Patient"));
+
+        Provider provider = providerRepository.save(TestData.provider("Agenda", "Provider"));
+
+        LocalDate day = LocalDate.now().plusDays(3);
+        Appointment afternoon = appointmentService.createAppointment(request(patient, provider, day.atTime(14, 0)));
+        assertThat(agendaService.getAgenda(provider.getId(), day)).hasSize(1);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Appointment morning = appointmentService.createAppointment(request(patient, provider, day.atTime(9, 0)));
+        appointmentService.updateAppointmentStatus(afternoon.getId(), Appointment.AppointmentStatus.CANCELLED);
+        statistics.clear();
+
+        List<AgendaEntry> agenda = agendaService.getAgenda(provider.getId(), day);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(agenda).extracting(AgendaEntry::getAppointmentId).containsExactly(morning.getId(), afternoon.getId());
+        assertThat(agenda.get(0).getPatientName()).isEqualTo("Agenda Patient");
+        assertThat(agenda.get(1).getStatus()).isEqualTo(Appointment.AppointmentStatus.CANCELLED);
+    }
+
+    private static AppointmentRequest request(Patient patient, Provider provider, LocalDateTime dateTime) {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setPatientId(patient.getId());
+        request.setProviderId(provider.getId());
+        request.setAppointmentMode(Appointment.AppointmentMode.IN_PERSON);
+        request.setAppointmentType("consultation");
+        request.setAppointmentDateTime(dateTime);
+        return request;
+    }
+}
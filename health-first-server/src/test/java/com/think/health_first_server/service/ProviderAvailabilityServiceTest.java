@@ -0,0 +1,58 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dao.ProviderAvailability;
+import com.think.health_first_server.dto.ProviderAvailabilityRequest;
+import com.think.health_first_server.repo.ProviderAvailabilityRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProviderAvailabilityServiceTest {
+
+    private final ProviderAvailabilityRepository availabilityRepository = mock(ProviderAvailabilityRepository.class);
+    private final ProviderRepository providerRepository = mock(ProviderRepository.class);
+    private final ResourceVersions resourceVersions = new ResourceVersions(16);
+    private final ProviderAvailabilityService service = new ProviderAvailabilityService();
+
+    @Test
+    void creatingAnAvailabilityChangesItsEtag() {
+        ReflectionTestUtils.setField(service, "availabilityRepository", availabilityRepository);
+        ReflectionTestUtils.setField(service, "providerRepository", providerRepository);
+        ReflectionTestUtils.setField(service, "expansionService", mock(AvailabilityExpansionService.class));
+        ReflectionTestUtils.setField(service, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "resourceVersions", resourceVersions);
+        Provider provider = new Provider();
+        provider.setId(UUID.randomUUID());
+        UUID id = UUID.randomUUID();
+        when(providerRepository.findById(provider.getId())).thenReturn(Optional.of(provider));
+        when(availabilityRepository.save(any())).thenAnswer(invocation -> {
+            ProviderAvailability saved = invocation.getArgument(0);
+            saved.setId(id);
+            return saved;
+        });
+        // A client may hold the tag of a 404 for an id that is only created later
+        String before = resourceVersions.etag(ResourceVersions.Scope.AVAILABILITY, id);
+
+        ProviderAvailabilityRequest request = new ProviderAvailabilityRequest();
+        request.setProviderId(provider.getId());
+        request.setDate(LocalDate.of(2030, 1, 7));
+        request.setStartTime(LocalTime.of(9, 0));
+        request.setEndTime(LocalTime.of(12, 0));
+        request.setSlotDuration(30);
+        service.createAvailability(request);
+
+        assertThat(resourceVersions.etag(ResourceVersions.Scope.AVAILABILITY, id)).isNotEqualTo(before);
+    }
+}
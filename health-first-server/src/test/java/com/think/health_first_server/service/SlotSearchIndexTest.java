@@ -0,0 +1,191 @@
+package com.think.health_first_server.service;
+
+import com.think.health_first_server.TestData;
+import com.think.health_first_server.dao.Appointment;
+import com.think.health_first_server.dao.ClinicAddress;
+import com.think.health_first_server.dao.Patient;
+import com.think.health_first_server.dao.Provider;
+import com.think.health_first_server.dao.ProviderAvailability;
+import com.think.health_first_server.dto.OpenSlot;
+import com.think.health_first_server.dto.SlotSearchRequest;
+import com.think.health_first_server.event.AppointmentChangedEvent;
+import com.think.health_first_server.event.AvailabilityChangedEvent;
+import com.think.health_first_server.repo.ProviderAvailabilityRepository;
+import com.think.health_first_server.repo.ProviderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SlotSearchIndexTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(2);
+    private static final LocalDateTime NINE = DAY.atTime(9, 0);
+
+    @Autowired
+    private SlotSearchIndex slotSearchIndex;
+    @Autowired
+    private AppointmentScheduleIndex scheduleIndex;
+    @Autowired
+    private ProviderRepository providerRepository;
+    @Autowired
+    private ProviderAvailabilityRepository availabilityRepository;
+
+    @Test
+    void searchMatchesProviderAndRuleFiltersIgnoringCase() {
+        String specialization = "Dermatology-" + UUID.randomUUID().toString().substring(0, 8);
+        Provider austin = saveProvider(specialization, "Austin");
+        Provider boston = saveProvider(specialization, "Boston");
+        saveRule(austin, 1, "clinic", "consultation");
+        saveRule(boston, 1, "telemedicine", "follow_up");
+
+        assertThat(search(specialization, request -> { }))
+                .extracting(OpenSlot::getProviderId).containsOnly(austin.getId(), boston.getId());
+        assertThat(search(" " + specialization.toUpperCase() + " ", request -> request.setCity("austin")))
+                .extracting(OpenSlot::getProviderId).containsOnly(austin.getId());
+        assertThat(search(specialization, request -> request.setLocationType("Telemedicine")))
+                .extracting(OpenSlot::getProviderId).containsOnly(boston.getId());
+        assertThat(search(specialization, request -> {
+            request.setCity("Austin");
+            request.setAppointmentType("follow_up");
+        })).isEmpty();
+    }
+
+    @Test
+    void bookingsAndCancellationsAdjustFreeCapacity() {
+        Provider provider = saveProvider("Capacity-" + UUID.randomUUID(), "Denver");
+        saveRule(provider, 2, "clinic", "consultation");
+        assertThat(freeCapacityAtNine(provider)).isEqualTo(2);
+
+        Appointment first = book(provider, NINE);
+        assertThat(freeCapacityAtNine(provider)).isEqualTo(1);
+        Appointment second = book(provider, NINE);
+        assertThat(freeCapacityAtNine(provider)).isZero();
+        // The slot after it is untouched
+        assertThat(search(provider.getSpecialization(), request -> { }))
+                .extracting(OpenSlot::getStart).containsExactly(NINE.plusMinutes(30));
+
+        cancel(first);
+        assertThat(freeCapacityAtNine(provider)).isEqualTo(1);
+        cancel(second);
+        assertThat(freeCapacityAtNine(provider)).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentRefreshesSettleOnTheFinalCount() throws Exception {
+        int capacity = 64;
+        Provider provider = saveProvider("Concurrent-" + UUID.randomUUID(), "Seattle");
+        saveRule(provider, capacity, "clinic", "consultation");
+
+        // Many short rounds: a refresh that counted before another booking but stored after it shows up as spare capacity
+        for (int round = 0; round < 50; round++) {
+            List<Appointment> booked = new ArrayList<>();
+            for (int i = 0; i < capacity; i++) {
+                booked.add(appointment(provider, NINE));
+            }
+            concurrently(booked, this::book);
+            assertThat(freeCapacityAtNine(provider)).isZero();
+
+            concurrently(booked, this::cancel);
+            assertThat(freeCapacityAtNine(provider)).isEqualTo(capacity);
+        }
+    }
+
+    private void concurrently(List<Appointment> appointments, Consumer<Appointment> change) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        for (Appointment appointment : appointments) {
+            executor.submit(() -> {
+                start.await();
+                change.accept(appointment);
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    }
+
+    private int freeCapacityAtNine(Provider provider) {
+        return search(provider.getSpecialization(), request -> { }).stream()
+                .filter(slot -> slot.getStart().equals(NINE))
+                .mapToInt(OpenSlot::getFreeCapacity)
+                .findFirst()
+                .orElse(0);
+    }
+
+    private List<OpenSlot> search(String specialization, Consumer<SlotSearchRequest> filters) {
+        SlotSearchRequest request = new SlotSearchRequest();
+        request.setSpecialization(specialization);
+        request.setFrom(DAY.atStartOfDay());
+        request.setTo(DAY.plusDays(1).atStartOfDay());
+        filters.accept(request);
+        return slotSearchIndex.search(request);
+    }
+
+    // Bookings only go through the in-memory indexes, which is all the search reads
+    private Appointment book(Provider provider, LocalDateTime start) {
+        Appointment appointment = appointment(provider, start);
+        book(appointment);
+        return appointment;
+    }
+
+    private void book(Appointment appointment) {
+        scheduleIndex.add(appointment);
+        slotSearchIndex.onAppointmentChanged(AppointmentChangedEvent.of(appointment, null));
+    }
+
+    private void cancel(Appointment appointment) {
+        scheduleIndex.remove(appointment.getId());
+        slotSearchIndex.onAppointmentChanged(
+                AppointmentChangedEvent.of(appointment, Appointment.AppointmentStatus.SCHEDULED));
+    }
+
+    private static Appointment appointment(Provider provider, LocalDateTime start) {
+        Patient patient = TestData.patient("Search", "Patient");
+        patient.setId(UUID.randomUUID());
+        Appointment appointment = TestData.appointment(patient, provider, start);
+        appointment.setId(UUID.randomUUID());
+        appointment.setDurationMinutes(30);
+        return appointment;
+    }
+
+    private void saveRule(Provider provider, int maxAppointments, String locationType, String appointmentType) {
+        ProviderAvailability availability = new ProviderAvailability();
+        availability.setProvider(provider);
+        availability.setDate(DAY);
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(10, 0));
+        availability.setSlotDuration(30);
+        availability.setMaxAppointmentsPerSlot(maxAppointments);
+        availability.setLocationType(locationType);
+        availability.setAppointmentType(appointmentType);
+        availabilityRepository.save(availability);
+        slotSearchIndex.onAvailabilityChanged(new AvailabilityChangedEvent(provider.getId()));
+    }
+
+    private Provider saveProvider(String specialization, String city) {
+        ClinicAddress address = new ClinicAddress();
+        address.setCity(city);
+        address.setState("TX");
+        address.setZip("73301");
+        Provider provider = TestData.provider("Search", "Provider");
+        provider.setSpecialization(specialization);
+        provider.setClinicAddress(address);
+        return providerRepository.save(provider);
+    }
+}